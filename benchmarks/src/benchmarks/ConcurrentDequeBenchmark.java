@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Одновременные вставки, извлечения и удаления итератором
+ * 
+ * Потоки группы работают с одной коллекцией: один вставляет в хвост
+ * и извлекает из головы, другой извлекает из хвоста и вставляет
+ * в голову, третий удаляет головной элемент итератором. Удаление
+ * итератором часто состязается с извлечением того же элемента.
+ * 
+ * Согласованность size() с обходом проверяет
+ * ConcurrentDoublyLinkedListTest; здесь выполняются только замеры.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ConcurrentDequeBenchmark {
+    
+    @Param({"ConcurrentDoublyLinkedList", "java.util.concurrent.ConcurrentLinkedDeque"})
+    public String implementation;
+    
+    @Param({"16", "1024"})
+    public int size;
+    
+    private Deque<Integer> deque;
+    private Integer value;  // Вставляемое значение (без упаковки в замере)
+    
+    @Setup(Level.Iteration)
+    public void setUp() {
+        deque = Implementations.create(implementation);
+        Implementations.fill(deque, size);
+        value = size;
+    }
+    
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Integer offerPoll() {
+        deque.addLast(value);
+        return deque.pollFirst();
+    }
+    
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Integer pollOffer() {
+        Integer polled = deque.pollLast();
+        deque.addFirst(value);
+        return polled;
+    }
+    
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Integer iteratorRemove() {
+        Iterator<Integer> it = deque.iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        Integer removed = it.next();
+        it.remove();
+        deque.addLast(removed);
+        return removed;
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Операции с концами списка в сравнении с LinkedList и ArrayDeque
+ * 
+ * Каждая вставка в паре с удалением с другого конца, поэтому размер
+ * коллекции постоянен на протяжении всего замера.
+ * 
+ * Удаление по значению каждый раз берет следующее по порядку значение
+ * после size / 2 и переносит его в хвост. Удаляемое значение поэтому
+ * всегда стоит на позиции size / 2, а после size - size / 2 вызовов
+ * восстанавливается исходный порядок.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DequeBenchmark {
+    
+    @Param({"DoublyLinkedList", "UnrolledDoublyLinkedList", "java.util.LinkedList", "java.util.ArrayDeque"})
+    public String implementation;
+    
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+    
+    private Deque<Integer> deque;
+    private Integer value;   // Вставляемое значение (без упаковки в замере)
+    private int middle;      // Следующее удаляемое значение, всегда на позиции size / 2
+    
+    @Setup
+    public void setUp() {
+        deque = Implementations.create(implementation);
+        Implementations.fill(deque, size);
+        value = size;
+        middle = size / 2;
+    }
+    
+    @Benchmark
+    public Integer addFirst() {
+        deque.addFirst(value);
+        return deque.removeLast();
+    }
+    
+    @Benchmark
+    public Integer addLast() {
+        deque.addLast(value);
+        return deque.removeFirst();
+    }
+    
+    @Benchmark
+    public Integer removeFirst() {
+        Integer removed = deque.removeFirst();
+        deque.addLast(removed);
+        return removed;
+    }
+    
+    @Benchmark
+    public Integer removeLast() {
+        Integer removed = deque.removeLast();
+        deque.addFirst(removed);
+        return removed;
+    }
+    
+    @Benchmark
+    public boolean removeByValue() {
+        Integer target = middle;
+        boolean removed = deque.remove(target);
+        deque.addLast(target);
+        middle = (middle + 1 < size) ? middle + 1 : size / 2;
+        return removed;
+    }
+}
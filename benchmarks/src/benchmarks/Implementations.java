@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.Collection;
+
+/**
+ * Создание сравниваемых реализаций по имени класса
+ * 
+ * Классы проекта лежат в пакете по умолчанию, который нельзя
+ * импортировать из именованного пакета (а JMH требует именованный
+ * пакет для бенчмарков). Поэтому реализации создаются через
+ * рефлексию и используются через интерфейсы List и Deque.
+ */
+final class Implementations {
+    
+    private Implementations() {
+    }
+    
+    /**
+     * Создание пустой коллекции указанного класса
+     * 
+     * @param className полное имя класса с конструктором без аргументов
+     * @return новая пустая коллекция
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends Collection<Integer>> C create(String className) {
+        try {
+            return (C) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Не удалось создать " + className, e);
+        }
+    }
+    
+    /**
+     * Заполнение коллекции значениями 0..size-1 по порядку
+     * 
+     * @param collection пустая коллекция
+     * @param size количество элементов
+     */
+    static void fill(Collection<Integer> collection, int size) {
+        for (int i = 0; i < size; i++) {
+            collection.add(i);
+        }
+    }
+}
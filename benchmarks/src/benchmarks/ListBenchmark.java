@@ -0,0 +1,123 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Позиционные операции и поиск в сравнении с LinkedList
+ * 
+ * ArrayDeque в сравнении не участвует: у него нет доступа по индексу.
+ * Вставка по индексу выполняется в паре с удалением по тому же
+ * индексу, чтобы размер не менялся.
+ * 
+ * Индексы для доступа по позиции берутся по очереди из заранее
+ * построенных случайных последовательностей в первой, средней и
+ * последней трети списка. Повторный запрос того же индекса DoublyLinkedList
+ * обслуживает запомненным узлом за O(1), и замер не отражал бы обход.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ListBenchmark {
+    
+    private static final int INDEX_COUNT = 1024;  // Длина последовательностей индексов (степень двойки)
+    
+    @Param({"DoublyLinkedList", "UnrolledDoublyLinkedList", "java.util.LinkedList"})
+    public String implementation;
+    
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+    
+    private List<Integer> list;
+    private Integer value;   // Вставляемое значение
+    private Integer hit;     // Значение из середины списка
+    private Integer miss;    // Отсутствующее значение
+    private int[] headIndexes;    // Случайные индексы первой трети
+    private int[] middleIndexes;  // Случайные индексы средней трети
+    private int[] tailIndexes;    // Случайные индексы последней трети
+    private int cursor;           // Номер следующего индекса в последовательности
+    
+    @Setup
+    public void setUp() {
+        list = Implementations.create(implementation);
+        Implementations.fill(list, size);
+        value = size;
+        hit = size / 2;
+        miss = -1;
+        
+        Random random = new Random(42);
+        headIndexes = randomIndexes(random, 0, size / 3);
+        middleIndexes = randomIndexes(random, size / 3, 2 * size / 3);
+        tailIndexes = randomIndexes(random, 2 * size / 3, size);
+    }
+    
+    private static int[] randomIndexes(Random random, int from, int to) {
+        int[] indexes = new int[INDEX_COUNT];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = from + random.nextInt(to - from);
+        }
+        return indexes;
+    }
+    
+    private int nextIndex(int[] indexes) {
+        return indexes[cursor++ & (INDEX_COUNT - 1)];
+    }
+    
+    @Benchmark
+    public Integer getHead() {
+        return list.get(nextIndex(headIndexes));
+    }
+    
+    @Benchmark
+    public Integer getMiddle() {
+        return list.get(nextIndex(middleIndexes));
+    }
+    
+    @Benchmark
+    public Integer getTail() {
+        return list.get(nextIndex(tailIndexes));
+    }
+    
+    @Benchmark
+    public Integer addAtMiddle() {
+        int index = nextIndex(middleIndexes);
+        list.add(index, value);
+        return list.remove(index);
+    }
+    
+    @Benchmark
+    public int indexOfHit() {
+        return list.indexOf(hit);
+    }
+    
+    @Benchmark
+    public int indexOfMiss() {
+        return list.indexOf(miss);
+    }
+    
+    @Benchmark
+    public boolean containsHit() {
+        return list.contains(hit);
+    }
+    
+    @Benchmark
+    public boolean containsMiss() {
+        return list.contains(miss);
+    }
+}
@@ -0,0 +1,252 @@
+import javafx.concurrent.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Массовые операции над списком, выполняемые вне потока JavaFX
+ *
+ * Каждая операция - это {@link Task}, который строит или изменяет
+ * собственный список, сообщает о прогрессе и проверяет отмену.
+ * Список, с которым работает задача, не должен быть виден потоку
+ * интерфейса до ее завершения: готовый результат передается
+ * в отображаемый список одной операцией splice.
+ */
+final class BulkWorkload {
+    // Прогресс сообщается не чаще одного раза на столько элементов
+    private static final int PROGRESS_STEP = 1 << 14;
+
+    private BulkWorkload() {
+    }
+
+    /**
+     * Исполнитель фоновых задач
+     *
+     * На JDK с виртуальными потоками каждая задача получает свой
+     * виртуальный поток, иначе задачи выполняются в одном потоке-демоне.
+     *
+     * @return новый исполнитель
+     */
+    static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "bulk-workload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Генерация списка из случайных чисел
+     *
+     * @param count количество элементов
+     * @return задача, результат которой - новый список
+     * @throws IllegalArgumentException если количество отрицательно
+     */
+    static Task<DoublyLinkedList<Integer>> generate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Количество не может быть отрицательным: " + count);
+        }
+        return new Task<>() {
+            @Override
+            protected DoublyLinkedList<Integer> call() {
+                updateMessage("Генерация " + count + " значений");
+                SplittableRandom random = new SplittableRandom();
+                DoublyLinkedList<Integer> result = new DoublyLinkedList<>();
+                for (int i = 0; i < count; i++) {
+                    if (i % PROGRESS_STEP == 0) {
+                        if (isCancelled()) {
+                            break;
+                        }
+                        updateProgress(i, count);
+                    }
+                    result.addLast(random.nextInt());
+                }
+                updateProgress(count, count);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Загрузка списка из текстового файла с целыми числами
+     *
+     * Числа разделяются пробелами или переводами строк.
+     *
+     * @param file файл с числами
+     * @return задача, результат которой - новый список
+     */
+    static Task<DoublyLinkedList<Integer>> load(Path file) {
+        return new Task<>() {
+            @Override
+            protected DoublyLinkedList<Integer> call() throws IOException {
+                updateMessage("Загрузка " + file.getFileName());
+                long total = Files.size(file);
+                long read = 0;
+                DoublyLinkedList<Integer> result = new DoublyLinkedList<>();
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    int lineNumber = 0;
+                    while ((line = reader.readLine()) != null && !isCancelled()) {
+                        lineNumber++;
+                        read += line.length() + 1;
+                        for (String token : line.trim().split("\\s+")) {
+                            if (!token.isEmpty()) {
+                                result.addLast(parseInt(token, lineNumber));
+                            }
+                        }
+                        if (lineNumber % PROGRESS_STEP == 0) {
+                            updateProgress(read, total);
+                        }
+                    }
+                }
+                updateProgress(total, total);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Выполнение сценария операций над списком
+     *
+     * Каждая строка файла - одна операция: addFirst v, addLast v,
+     * add i v, removeFirst, removeLast, remove i, removeValue v,
+     * removeAll v (все вхождения за один проход), clear.
+     * Пустые строки и строки, начинающиеся с #, пропускаются.
+     * При отмене список остается в состоянии после последней
+     * выполненной операции.
+     *
+     * @param file файл сценария
+     * @param target список, принадлежащий задаче до ее завершения
+     * @return задача, результат которой - тот же список target
+     */
+    static Task<DoublyLinkedList<Integer>> script(Path file, DoublyLinkedList<Integer> target) {
+        return new Task<>() {
+            @Override
+            protected DoublyLinkedList<Integer> call() throws IOException {
+                updateMessage("Сценарий " + file.getFileName());
+                long total = Files.size(file);
+                long read = 0;
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    int lineNumber = 0;
+                    while ((line = reader.readLine()) != null && !isCancelled()) {
+                        lineNumber++;
+                        read += line.length() + 1;
+                        String trimmed = line.trim();
+                        if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                            apply(target, trimmed.split("\\s+"), lineNumber);
+                        }
+                        if (lineNumber % PROGRESS_STEP == 0) {
+                            updateProgress(read, total);
+                        }
+                    }
+                }
+                updateProgress(total, total);
+                return target;
+            }
+        };
+    }
+
+    /**
+     * Загрузка списка из бинарного снимка
+     *
+     * @param file файл снимка
+     * @return задача, результат которой - новый список
+     */
+    static Task<DoublyLinkedList<Integer>> loadSnapshot(Path file) {
+        return new Task<>() {
+            @Override
+            protected DoublyLinkedList<Integer> call() throws IOException {
+                updateMessage("Загрузка снимка " + file.getFileName());
+                return DoublyLinkedList.load(file);
+            }
+        };
+    }
+
+    /**
+     * Сохранение списка в бинарный снимок
+     *
+     * Список не должен изменяться, пока задача выполняется.
+     *
+     * @param file файл снимка
+     * @param source сохраняемый список
+     * @return задача без результата (null)
+     */
+    static Task<DoublyLinkedList<Integer>> saveSnapshot(Path file, DoublyLinkedList<Integer> source) {
+        return new Task<>() {
+            @Override
+            protected DoublyLinkedList<Integer> call() throws IOException {
+                updateMessage("Сохранение снимка " + file.getFileName());
+                source.save(file);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Выполнение одной операции сценария
+     *
+     * @throws IllegalArgumentException если операция не распознана
+     */
+    private static void apply(DoublyLinkedList<Integer> list, String[] tokens, int lineNumber) {
+        String op = tokens[0];
+        switch (op) {
+            case "addFirst":
+                list.addFirst(argument(tokens, 1, lineNumber));
+                break;
+            case "addLast":
+                list.addLast(argument(tokens, 1, lineNumber));
+                break;
+            case "add":
+                list.add(argument(tokens, 1, lineNumber), argument(tokens, 2, lineNumber));
+                break;
+            case "removeFirst":
+                list.removeFirst();
+                break;
+            case "removeLast":
+                list.removeLast();
+                break;
+            case "remove":
+                list.remove((int) argument(tokens, 1, lineNumber));
+                break;
+            case "removeValue":
+                list.removeByValue(argument(tokens, 1, lineNumber));
+                break;
+            case "removeAll":
+                list.removeAllOccurrences(argument(tokens, 1, lineNumber));
+                break;
+            case "clear":
+                list.clear();
+                break;
+            default:
+                throw new IllegalArgumentException("Строка " + lineNumber + ": неизвестная операция " + op);
+        }
+    }
+
+    private static Integer argument(String[] tokens, int position, int lineNumber) {
+        if (position >= tokens.length) {
+            throw new IllegalArgumentException("Строка " + lineNumber + ": не хватает аргумента у " + tokens[0]);
+        }
+        return parseInt(tokens[position], lineNumber);
+    }
+
+    private static int parseInt(String token, int lineNumber) {
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Строка " + lineNumber + ": не число " + token, e);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Визуализация двусвязного списка рисованием на Canvas
+ *
+ * Узлы, стрелки и метки HEAD/TAIL рисуются напрямую в GraphicsContext,
+ * без отдельного узла сцены на каждую фигуру. Содержимое делится
+ * на плитки фиксированной ширины (одна текстура Canvas не может быть
+ * сколь угодно широкой), и на панели существуют только плитки,
+ * пересекающие видимую область. При прокрутке плитка перерисовывается,
+ * только если она стала показывать другой участок списка, а после
+ * вставки или удаления - только если она правее измененной позиции.
+ */
+class CanvasListRenderer implements ListRenderer {
+    private static final double TILE_WIDTH = 2048;
+
+    private static final Font VALUE_FONT = Font.font("Times New Roman", FontWeight.BOLD, 20);
+    private static final Font INDEX_FONT = Font.font("Times New Roman", 12);
+    private static final Font LABEL_FONT = Font.font("Times New Roman", FontWeight.BOLD, 14);
+    private static final Font INFO_FONT = Font.font("Times New Roman", FontWeight.BOLD, 16);
+    private static final Font EMPTY_FONT = Font.font("Times New Roman", 18);
+
+    private static final Color NODE_FILL = Color.web("#3498db");
+    private static final Color NODE_STROKE = Color.web("#2980b9");
+    private static final Color FORWARD_COLOR = Color.web("#2ecc71");
+    private static final Color BACKWARD_COLOR = Color.web("#e74c3c");
+
+    private final DoublyLinkedList<Integer> list;
+    private final ScrollPane scrollPane;
+    private final Pane pane;
+    private final List<Tile> tiles = new ArrayList<>();  // Все созданные плитки
+    private final Text sizeInfo;
+    private final Text emptyText;
+
+    /**
+     * Создание визуализации списка
+     *
+     * @param list отображаемый список
+     */
+    CanvasListRenderer(DoublyLinkedList<Integer> list) {
+        this.list = list;
+
+        pane = new Pane();
+        pane.setMinHeight(MIN_HEIGHT);
+        pane.setStyle("-fx-background-color: #ecf0f1;");
+
+        sizeInfo = new Text();
+        sizeInfo.setFont(INFO_FONT);
+        sizeInfo.setFill(Color.web("#34495e"));
+        sizeInfo.setY(30);
+
+        emptyText = new Text("Список пуст");
+        emptyText.setFont(EMPTY_FONT);
+        emptyText.setFill(Color.GRAY);
+
+        pane.getChildren().addAll(sizeInfo, emptyText);
+
+        scrollPane = new ScrollPane(pane);
+        scrollPane.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        scrollPane.setFitToHeight(true);
+
+        scrollPane.hvalueProperty().addListener((obs, oldValue, newValue) -> layoutTiles());
+        scrollPane.viewportBoundsProperty().addListener((obs, oldValue, newValue) -> layoutTiles());
+    }
+
+    @Override
+    public ScrollPane getView() {
+        return scrollPane;
+    }
+
+    @Override
+    public void refresh() {
+        invalidateFrom(0);
+        layoutTiles();
+    }
+
+    @Override
+    public void inserted(int index, Integer value) {
+        invalidateFrom(index);
+        layoutTiles();
+    }
+
+    @Override
+    public void removed(int index) {
+        invalidateFrom(index);
+        layoutTiles();
+    }
+
+    /**
+     * Пометка плиток, затронутых изменением с позиции index
+     *
+     * Левее позиции меняется только стрелка от предыдущего узла,
+     * поэтому устаревают плитки начиная с него.
+     */
+    private void invalidateFrom(int index) {
+        double x = ListRenderer.nodeX(Math.max(index - 1, 0)) - NODE_RADIUS;
+        for (Tile tile : tiles) {
+            if ((tile.tileIndex + 1) * TILE_WIDTH > x) {
+                tile.tileIndex = -1;
+            }
+        }
+    }
+
+    /**
+     * Размещение плиток в видимой области и перерисовка устаревших
+     */
+    private void layoutTiles() {
+        int size = list.size();
+        double width = ListRenderer.contentWidth(size);
+        double viewportWidth = scrollPane.getViewportBounds().getWidth();
+        double offset = ListRenderer.horizontalOffset(scrollPane, width);
+        pane.setPrefWidth(width);
+
+        boolean empty = (size == 0);
+        emptyText.setVisible(empty);
+        sizeInfo.setVisible(!empty);
+        if (empty) {
+            for (Tile tile : tiles) {
+                tile.setVisible(false);
+            }
+            emptyText.setX(offset + viewportWidth / 2 - 50);
+            emptyText.setY(Math.max(pane.getHeight(), MIN_HEIGHT) / 2);
+            return;
+        }
+        sizeInfo.setText("Размер списка: " + size);
+        sizeInfo.setX(offset + 20);
+        sizeInfo.toFront();
+
+        int firstTile = (int) (offset / TILE_WIDTH);
+        int lastTile = (int) (Math.min(offset + viewportWidth, width) / TILE_WIDTH);
+        double height = Math.max(pane.getHeight(), MIN_HEIGHT);
+
+        int count = 0;
+        for (int t = firstTile; t <= lastTile; t++) {
+            if (count == tiles.size()) {
+                Tile tile = new Tile();
+                tiles.add(tile);
+                pane.getChildren().add(0, tile);
+            }
+            Tile tile = tiles.get(count++);
+            tile.setVisible(true);
+            if (tile.tileIndex != t || tile.getHeight() != height) {
+                tile.paint(t, height, size);
+            }
+        }
+        for (int i = count; i < tiles.size(); i++) {
+            tiles.get(i).setVisible(false);
+        }
+    }
+
+    /**
+     * Плитка Canvas, показывающая участок содержимого шириной TILE_WIDTH
+     */
+    private final class Tile extends Canvas {
+        private int tileIndex = -1;  // Номер нарисованного участка (-1, если рисунок устарел)
+
+        Tile() {
+            super(TILE_WIDTH, MIN_HEIGHT);
+        }
+
+        /**
+         * Рисование участка с номером tileIndex
+         */
+        void paint(int tileIndex, double height, int size) {
+            this.tileIndex = tileIndex;
+            setHeight(height);
+
+            double left = tileIndex * TILE_WIDTH;
+            setLayoutX(left);
+
+            GraphicsContext gc = getGraphicsContext2D();
+            gc.clearRect(0, 0, TILE_WIDTH, height);
+            gc.save();
+            gc.translate(-left, 0);
+
+            int from = ListRenderer.firstVisible(left);
+            int to = ListRenderer.lastVisible(left + TILE_WIDTH, size);
+            if (from <= to) {
+                ListIterator<Integer> it = list.listIterator(from);
+                for (int i = from; i <= to; i++) {
+                    drawNode(gc, i, it.next(), size);
+                }
+            }
+            gc.restore();
+        }
+
+        private void drawNode(GraphicsContext gc, int index, Integer value, int size) {
+            double x = ListRenderer.nodeX(index);
+            double y = START_Y;
+
+            gc.setFill(NODE_FILL);
+            gc.fillOval(x - NODE_RADIUS, y - NODE_RADIUS, 2 * NODE_RADIUS, 2 * NODE_RADIUS);
+            gc.setStroke(NODE_STROKE);
+            gc.setLineWidth(3);
+            gc.strokeOval(x - NODE_RADIUS, y - NODE_RADIUS, 2 * NODE_RADIUS, 2 * NODE_RADIUS);
+
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+            gc.setFont(VALUE_FONT);
+            gc.setFill(Color.WHITE);
+            gc.fillText(String.valueOf(value), x, y);
+
+            gc.setTextBaseline(VPos.BASELINE);
+            gc.setFont(INDEX_FONT);
+            gc.setFill(Color.DARKGRAY);
+            gc.fillText("[" + index + "]", x, y + NODE_RADIUS + 20);
+
+            if (index < size - 1) {
+                double from = x + NODE_RADIUS;
+                double to = x + NODE_SPACING - NODE_RADIUS;
+                gc.setLineWidth(2);
+
+                // Стрелка вперед (сверху) с наконечником
+                gc.setStroke(FORWARD_COLOR);
+                gc.strokeLine(from, y - 10, to, y - 10);
+                gc.strokeLine(to, y - 10, to - 10, y - 15);
+                gc.strokeLine(to, y - 10, to - 10, y - 5);
+
+                // Стрелка назад (снизу) с наконечником
+                gc.setStroke(BACKWARD_COLOR);
+                gc.strokeLine(to, y + 10, from, y + 10);
+                gc.strokeLine(from, y + 10, from + 10, y + 5);
+                gc.strokeLine(from, y + 10, from + 10, y + 15);
+            }
+
+            gc.setFont(LABEL_FONT);
+            if (index == 0) {
+                gc.setFill(FORWARD_COLOR);
+                gc.fillText("HEAD", x, y - NODE_RADIUS - 10);
+            }
+            if (index == size - 1) {
+                gc.setFill(BACKWARD_COLOR);
+                gc.fillText("TAIL", x, y - NODE_RADIUS - 10);
+            }
+        }
+    }
+}
@@ -0,0 +1,525 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасный двусвязный список без блокировок
+ * 
+ * Операции с концами (addFirst, addLast, removeFirst, removeLast и
+ * их варианты offer/poll/peek) выполняются без блокировок: узлы
+ * связываются через CAS, а удаление сначала помечает узел логически
+ * удаленным и лишь затем исключает его из цепочки. Хранение построено
+ * на {@link ConcurrentLinkedDeque}, где этот алгоритм уже проверен.
+ * 
+ * Каждый элемент хранится в ячейке с признаком удаления. Любое
+ * удаление (извлечение с конца, удаление по значению, remove()
+ * итератора) сначала захватывает ячейку через CAS этого признака,
+ * и только захвативший поток уменьшает счетчик и исключает ячейку
+ * из цепочки. Поэтому элемент, который одновременно извлекают и
+ * удаляют итератором, учитывается ровно один раз, а захваченные
+ * ячейки, еще не исключенные из цепочки, пропускаются при чтении.
+ * 
+ * Размер ведется распределенным счетчиком {@link LongAdder}, поэтому
+ * size() не обходит список и не становится точкой конкуренции. При
+ * одновременных изменениях значение может ненадолго расходиться
+ * с цепочкой, а после их завершения совпадает с числом элементов
+ * при обходе. Итераторы слабо согласованы и не бросают
+ * ConcurrentModificationException.
+ * 
+ * Элементы null не допускаются.
+ * 
+ * @param <T> тип данных, хранящихся в списке
+ */
+public class ConcurrentDoublyLinkedList<T> extends AbstractCollection<T> implements Deque<T> {
+    private final ConcurrentLinkedDeque<Cell<T>> deque;  // Цепочка ячеек
+    private final LongAdder count;                        // Распределенный счетчик размера
+    
+    /**
+     * Конструктор пустого списка
+     */
+    public ConcurrentDoublyLinkedList() {
+        this.deque = new ConcurrentLinkedDeque<>();
+        this.count = new LongAdder();
+    }
+    
+    /**
+     * Добавление элемента в начало списка
+     * 
+     * @param data данные для добавления
+     * @throws NullPointerException если data равно null
+     */
+    @Override
+    public void addFirst(T data) {
+        deque.addFirst(new Cell<>(Objects.requireNonNull(data)));
+        count.increment();
+    }
+    
+    /**
+     * Добавление элемента в конец списка
+     * 
+     * @param data данные для добавления
+     * @throws NullPointerException если data равно null
+     */
+    @Override
+    public void addLast(T data) {
+        deque.addLast(new Cell<>(Objects.requireNonNull(data)));
+        count.increment();
+    }
+    
+    @Override
+    public boolean add(T data) {
+        addLast(data);
+        return true;
+    }
+    
+    /**
+     * Удаление первого элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T removeFirst() {
+        T data = pollFirst();
+        if (data == null) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return data;
+    }
+    
+    /**
+     * Удаление последнего элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T removeLast() {
+        T data = pollLast();
+        if (data == null) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return data;
+    }
+    
+    /**
+     * Удаление первого вхождения элемента по значению
+     * 
+     * @param data значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    public boolean removeByValue(T data) {
+        return removeFirstOccurrence(data);
+    }
+    
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        return o != null && removeOccurrence(o, deque.iterator());
+    }
+    
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        return o != null && removeOccurrence(o, deque.descendingIterator());
+    }
+    
+    /**
+     * Удаление первого еще не захваченного вхождения значения
+     * 
+     * Ячейку, которую другой поток захватил раньше, обход пропускает
+     * и ищет следующее вхождение. Захваченная ячейка исключается из
+     * цепочки самим итератором, то есть по ссылке, а не по значению.
+     */
+    private boolean removeOccurrence(Object o, Iterator<Cell<T>> it) {
+        while (it.hasNext()) {
+            Cell<T> cell = it.next();
+            if (o.equals(cell.data) && cell.claim()) {
+                count.decrement();
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+    
+    /**
+     * Получение элемента по индексу
+     * 
+     * Обход слабо согласован: при одновременных изменениях результат
+     * соответствует одному из промежуточных состояний списка.
+     * 
+     * @param index позиция элемента
+     * @return данные элемента
+     * @throws IndexOutOfBoundsException если элемента с таким индексом нет
+     */
+    public T get(int index) {
+        if (index >= 0) {
+            int i = 0;
+            for (T data : this) {
+                if (i++ == index) {
+                    return data;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size());
+    }
+    
+    /**
+     * Поиск индекса первого вхождения элемента
+     * 
+     * @param o значение для поиска
+     * @return индекс элемента или -1 если не найден
+     */
+    public int indexOf(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        int index = 0;
+        for (T data : this) {
+            if (o.equals(data)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+    
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+    
+    /**
+     * Получение размера списка
+     * 
+     * @return количество элементов (приблизительное при одновременных изменениях)
+     */
+    @Override
+    public int size() {
+        long n = count.sum();
+        if (n <= 0) {
+            return 0;
+        }
+        return n >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+    }
+    
+    /**
+     * Проверка пустоты списка
+     * 
+     * Проверяется сама цепочка, а не счетчик, поэтому результат точен
+     * на момент обращения к первой незахваченной ячейке.
+     * 
+     * @return true если список пуст, false иначе
+     */
+    @Override
+    public boolean isEmpty() {
+        return peekFirst() == null;
+    }
+    
+    /**
+     * Очистка списка
+     * 
+     * Элементы снимаются с головы по одному, поэтому элементы,
+     * добавленные одновременно с очисткой, могут остаться.
+     */
+    @Override
+    public void clear() {
+        while (pollFirst() != null) {
+            // Счетчик уменьшается в pollFirst
+        }
+    }
+    
+    // Операции интерфейса Deque
+    
+    @Override
+    public boolean offerFirst(T data) {
+        addFirst(data);
+        return true;
+    }
+    
+    @Override
+    public boolean offerLast(T data) {
+        addLast(data);
+        return true;
+    }
+    
+    @Override
+    public boolean offer(T data) {
+        return offerLast(data);
+    }
+    
+    @Override
+    public void push(T data) {
+        addFirst(data);
+    }
+    
+    /**
+     * Извлечение первого элемента
+     * 
+     * Ячейки, захваченные другими потоками, но еще не исключенные
+     * ими из цепочки, извлекаются и пропускаются.
+     */
+    @Override
+    public T pollFirst() {
+        Cell<T> cell;
+        while ((cell = deque.pollFirst()) != null) {
+            if (cell.claim()) {
+                count.decrement();
+                return cell.data;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public T pollLast() {
+        Cell<T> cell;
+        while ((cell = deque.pollLast()) != null) {
+            if (cell.claim()) {
+                count.decrement();
+                return cell.data;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public T poll() {
+        return pollFirst();
+    }
+    
+    @Override
+    public T pop() {
+        return removeFirst();
+    }
+    
+    @Override
+    public T remove() {
+        return removeFirst();
+    }
+    
+    /**
+     * Получение первого элемента без удаления
+     * 
+     * @return первый элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T getFirst() {
+        T data = peekFirst();
+        if (data == null) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return data;
+    }
+    
+    /**
+     * Получение последнего элемента без удаления
+     * 
+     * @return последний элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T getLast() {
+        T data = peekLast();
+        if (data == null) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return data;
+    }
+    
+    @Override
+    public T element() {
+        return getFirst();
+    }
+    
+    @Override
+    public T peekFirst() {
+        Iterator<T> it = iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+    
+    @Override
+    public T peekLast() {
+        Iterator<T> it = descendingIterator();
+        return it.hasNext() ? it.next() : null;
+    }
+    
+    @Override
+    public T peek() {
+        return peekFirst();
+    }
+    
+    /**
+     * Копия списка в обратном порядке
+     * 
+     * Как и в {@link DoublyLinkedList#reversed()}, возвращается
+     * независимая копия, а не представление.
+     * 
+     * @return новый список с элементами в обратном порядке
+     */
+    public ConcurrentDoublyLinkedList<T> reversed() {
+        ConcurrentDoublyLinkedList<T> copy = new ConcurrentDoublyLinkedList<>();
+        for (Iterator<T> it = descendingIterator(); it.hasNext(); ) {
+            copy.addLast(it.next());
+        }
+        return copy;
+    }
+    
+    /**
+     * Слабо согласованный итератор от головы к хвосту
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new CountingIterator(deque.iterator());
+    }
+    
+    /**
+     * Слабо согласованный итератор от хвоста к голове
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new CountingIterator(deque.descendingIterator());
+    }
+    
+    /**
+     * Печать списка от начала к концу
+     */
+    public void printForward() {
+        print("Прямой обход: ", iterator());
+    }
+    
+    /**
+     * Печать списка от конца к началу
+     */
+    public void printBackward() {
+        print("Обратный обход: ", descendingIterator());
+    }
+    
+    private void print(String title, Iterator<T> it) {
+        if (!it.hasNext()) {
+            System.out.println("Список пуст");
+            return;
+        }
+        
+        StringBuilder sb = new StringBuilder(title);
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(" <-> ");
+            }
+        }
+        System.out.println(sb);
+    }
+    
+    /**
+     * Ячейка цепочки с признаком логического удаления
+     * 
+     * equals не переопределен, поэтому ConcurrentLinkedDeque сравнивает
+     * ячейки по ссылке, и одинаковые значения не смешиваются.
+     */
+    private static final class Cell<T> {
+        private static final VarHandle REMOVED;
+        
+        static {
+            try {
+                REMOVED = MethodHandles.lookup().findVarHandle(Cell.class, "removed", boolean.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+        
+        final T data;
+        private volatile boolean removed;  // Ячейку захватил удаляющий поток
+        
+        Cell(T data) {
+            this.data = data;
+        }
+        
+        boolean isRemoved() {
+            return removed;
+        }
+        
+        /**
+         * Захват ячейки для удаления
+         * 
+         * @return true ровно для одного вызова среди всех потоков
+         */
+        boolean claim() {
+            return !removed && REMOVED.compareAndSet(this, false, true);
+        }
+    }
+    
+    /**
+     * Итератор, пропускающий захваченные ячейки
+     * 
+     * remove() захватывает ячейку последнего возвращенного элемента и,
+     * если захват удался, уменьшает счетчик и исключает именно эту
+     * ячейку. Если ее уже захватил другой поток (например, извлек
+     * pollFirst), элемент удален им, и remove() ничего не делает.
+     * 
+     * Чтобы hasNext() не обещал элемент, который успели удалить,
+     * следующая незахваченная ячейка выбирается заранее. Пока такого
+     * опережения не было, ячейку исключает remove() исходного итератора;
+     * после опережения она ищется в цепочке по ссылке.
+     */
+    private class CountingIterator implements Iterator<T> {
+        private final Iterator<Cell<T>> it;
+        private Cell<T> nextCell;      // Выбранная заранее ячейка или null
+        private Cell<T> lastReturned;  // Ячейка последнего возвращенного элемента или null
+        private boolean positioned;    // Исходный итератор стоит на lastReturned
+        
+        CountingIterator(Iterator<Cell<T>> it) {
+            this.it = it;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (nextCell == null && it.hasNext()) {
+                Cell<T> cell = it.next();
+                positioned = false;
+                if (!cell.isRemoved()) {
+                    nextCell = cell;
+                }
+            }
+            return nextCell != null;
+        }
+        
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextCell;
+            nextCell = null;
+            positioned = true;
+            return lastReturned.data;
+        }
+        
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (lastReturned.claim()) {
+                count.decrement();
+                if (positioned) {
+                    it.remove();
+                } else {
+                    deque.removeFirstOccurrence(lastReturned);
+                }
+            }
+            lastReturned = null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Немедленное освобождение прямых буферов и отображений файлов
+ *
+ * На JDK 9+ используется sun.misc.Unsafe.invokeCleaner. Если он
+ * недоступен, память освободится сборщиком мусора вместе с буфером.
+ * Для {@link java.nio.MappedByteBuffer} освобождение снимает
+ * отображение, после чего файл можно удалить или заменить
+ * (на Windows это невозможно, пока отображение живо).
+ *
+ * После free к буферу и его представлениям обращаться нельзя:
+ * память уже возвращена системе.
+ */
+final class DirectMemory {
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectMemory() {
+    }
+
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Память освободит сборщик мусора
+        }
+    }
+}
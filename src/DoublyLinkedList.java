@@ -1,12 +1,72 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.AbstractSequentialList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Реализация двусвязного списка
  * 
+ * Список реализует {@link List} и {@link Deque}, поэтому его можно
+ * передавать напрямую в API JDK. Итераторы работают за один проход
+ * по цепочке узлов и отказывают сразу (fail-fast) при структурном
+ * изменении списка в обход итератора.
+ * 
  * @param <T> тип данных, хранящихся в списке
  */
-public class DoublyLinkedList<T> {
+public class DoublyLinkedList<T> extends AbstractSequentialList<T> implements List<T>, Deque<T> {
     private Node<T> head;  // Голова списка
     private Node<T> tail;  // Хвост списка
     private int size;      // Размер списка
+    private final NodePool<T> pool;  // Пул узлов или null, если переиспользование выключено
+    private ValueIndex<T> valueIndex;  // Хеш-индекс значений или null, если выключен
+    private PositionIndex<T> positionIndex;  // Индекс позиций или null, если выключен
+    private MutationJournal<T> journal;  // Журнал изменений или null, если не подключен
+    private Node<T> finger;   // Последний найденный по индексу узел или null
+    private int fingerIndex;  // Индекс узла finger
+    
+    // Обход короче этого не заменяется поиском в индексе позиций
+    private static final int LINEAR_WALK_LIMIT = 32;
+    // Размер буфера, которым текст списка передается приемнику
+    private static final int WRITE_BUFFER_SIZE = 8192;
+    
+    // Части списка короче этой parallelSort сортирует последовательно
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 14;
+    // Через столько сохранений истории узлов перепроверяется, какие снимки живы
+    private static final int PIN_REFRESH_INTERVAL = 1024;
+    // Источник версий снимков, общий для всех списков (узлы переходят между списками)
+    private static final AtomicLong SNAPSHOT_CLOCK = new AtomicLong(1);
+    
+    /**
+     * Разделитель элементов при текстовом выводе по умолчанию
+     */
+    public static final String DEFAULT_SEPARATOR = " <-> ";
+    
+    private List<WeakReference<SnapshotView<T>>> snapshots;  // Выданные снимки или null
+    private long pinned = -1;        // Версия самого нового живого снимка или -1
+    private long oldestPinned = -1;  // Версия самого старого живого снимка или -1
+    private int preservedSinceRefresh;  // Сохранений истории с последней проверки снимков
     
     /**
      * Конструктор пустого списка
@@ -15,6 +75,23 @@ public class DoublyLinkedList<T> {
         this.head = null;
         this.tail = null;
         this.size = 0;
+        this.pool = null;
+    }
+    
+    /**
+     * Конструктор пустого списка с пулом узлов
+     * 
+     * Удаленные узлы возвращаются в пул ограниченной емкости
+     * и используются повторно при следующих вставках.
+     * 
+     * @param poolCapacity максимальное количество узлов в пуле
+     * @throws IllegalArgumentException если емкость отрицательна
+     */
+    public DoublyLinkedList(int poolCapacity) {
+        this.head = null;
+        this.tail = null;
+        this.size = 0;
+        this.pool = new NodePool<>(poolCapacity);
     }
     
     /**
@@ -22,17 +99,11 @@ public class DoublyLinkedList<T> {
      * 
      * @param data данные для добавления
      */
+    @Override
     public void addFirst(T data) {
-        Node<T> newNode = new Node<>(data);
-        
-        if (isEmpty()) {
-            head = tail = newNode;
-        } else {
-            newNode.next = head;
-            head.prev = newNode;
-            head = newNode;
-        }
-        size++;
+        long start = ListMetrics.start();
+        linkFirst(data);
+        ListMetrics.record(ListMetrics.Operation.ADD_FIRST, start);
     }
     
     /**
@@ -40,17 +111,23 @@ public class DoublyLinkedList<T> {
      * 
      * @param data данные для добавления
      */
+    @Override
     public void addLast(T data) {
-        Node<T> newNode = new Node<>(data);
-        
-        if (isEmpty()) {
-            head = tail = newNode;
-        } else {
-            newNode.prev = tail;
-            tail.next = newNode;
-            tail = newNode;
-        }
-        size++;
+        long start = ListMetrics.start();
+        linkLast(data);
+        ListMetrics.record(ListMetrics.Operation.ADD_LAST, start);
+    }
+    
+    /**
+     * Добавление элемента в конец списка
+     * 
+     * @param data данные для добавления
+     * @return всегда true
+     */
+    @Override
+    public boolean add(T data) {
+        addLast(data);
+        return true;
     }
     
     /**
@@ -60,51 +137,321 @@ public class DoublyLinkedList<T> {
      * @param data данные для добавления
      * @throws IndexOutOfBoundsException если индекс вне диапазона
      */
+    @Override
     public void add(int index, T data) {
         if (index < 0 || index > size) {
             throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
         }
         
-        if (index == 0) {
-            addFirst(data);
+        long start = ListMetrics.start();
+        if (index == size) {
+            linkLast(data);
+        } else {
+            linkBefore(data, getNodeAt(index), index);
+        }
+        ListMetrics.record(ListMetrics.Operation.ADD, start);
+    }
+    
+    /**
+     * Добавление всех элементов коллекции в конец списка
+     * 
+     * Новые узлы сначала связываются в отдельную цепочку,
+     * которая затем присоединяется к списку одной операцией.
+     * 
+     * @param c коллекция добавляемых элементов
+     * @return true если список изменился
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(size, c);
+    }
+    
+    /**
+     * Вставка всех элементов коллекции начиная с индекса
+     * 
+     * Узел по индексу ищется один раз, а новая цепочка
+     * вклеивается перед ним одной операцией.
+     * 
+     * @param index позиция первого вставляемого элемента
+     * @param c коллекция добавляемых элементов
+     * @return true если список изменился
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addAll(int index, Collection<? extends T> c) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        
+        // Копия защищает от добавления списка в самого себя
+        Object[] items = c.toArray();
+        if (items.length == 0) {
+            return false;
+        }
+        
+        Node<T> first = null;
+        Node<T> last = null;
+        for (Object item : items) {
+            Node<T> node = newNode((T) item);
+            if (first == null) {
+                first = node;
+            } else {
+                last.next = node;
+                node.prev = last;
+            }
+            last = node;
+        }
+        
+        PositionIndex<T> chainIndex = (positionIndex != null) ? new PositionIndex<>(first) : null;
+        linkChain(first, last, items.length, index == size ? null : getNodeAt(index), index, chainIndex);
+        return true;
+    }
+    
+    /**
+     * Перенос всех узлов другого списка в конец этого за O(1)
+     * 
+     * Узлы не копируются: цепочка другого списка присоединяется
+     * к хвосту, а другой список становится пустым. При включенном
+     * хеш-индексе узлы регистрируются в нем за O(k), индекс позиций
+     * сливается за ожидаемое O(log n).
+     * 
+     * @param other присоединяемый список
+     * @throws IllegalArgumentException если other - этот же список
+     */
+    public void splice(DoublyLinkedList<T> other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Нельзя присоединить список к самому себе");
+        }
+        if (other.isEmpty()) {
             return;
         }
         
+        Node<T> first = other.head;
+        Node<T> last = other.tail;
+        int count = other.size;
+        
+        PositionIndex<T> chainIndex = null;
+        if (other.positionIndex != null) {
+            if (positionIndex != null) {
+                chainIndex = other.positionIndex;
+            } else {
+                PositionIndex.detach(first);
+                other.positionIndex.clear();
+            }
+        } else if (positionIndex != null) {
+            chainIndex = new PositionIndex<>(first);
+        }
+        if (other.valueIndex != null) {
+            other.valueIndex.clear();
+        }
+        
+        inheritSnapshots(other);
+        other.head = other.tail = null;
+        other.size = 0;
+        other.finger = null;
+        other.modCount++;
+        if (other.journal != null) {
+            other.journal.record(MutationJournal.CLEAR, 0, null);
+        }
+        
+        linkChain(first, last, count, null, size, chainIndex);
+    }
+    
+    /**
+     * Отделение хвоста списка начиная с индекса в новый список
+     * 
+     * Цепочка разрезается в одном месте без копирования узлов.
+     * Новый список получает такие же настройки пула и индексов.
+     * 
+     * @param index позиция первого отделяемого элемента
+     * @return новый список с элементами [index, size)
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public DoublyLinkedList<T> split(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        
+        DoublyLinkedList<T> result = (pool != null)
+                ? new DoublyLinkedList<>(pool.getCapacity())
+                : new DoublyLinkedList<>();
         if (index == size) {
-            addLast(data);
-            return;
+            if (valueIndex != null) {
+                result.enableValueIndex();
+            }
+            if (positionIndex != null) {
+                result.enablePositionIndex();
+            }
+            return result;
         }
         
-        Node<T> newNode = new Node<>(data);
-        Node<T> current = getNodeAt(index);
+        Node<T> first = getNodeAt(index);
+        Node<T> last = tail;
         
-        newNode.next = current;
-        newNode.prev = current.prev;
-        current.prev.next = newNode;
-        current.prev = newNode;
-        size++;
+        tail = first.prev;
+        if (tail == null) {
+            head = null;
+        } else {
+            setNext(tail, null);
+        }
+        first.prev = null;
+        
+        result.inheritSnapshots(this);
+        result.head = first;
+        result.tail = last;
+        result.size = size - index;
+        size = index;
+        if (fingerIndex >= index) {
+            finger = null;
+        }
+        modCount++;
+        if (journal != null) {
+            journal.record(MutationJournal.TRUNCATE, index, null);
+        }
+        
+        if (valueIndex != null) {
+            valueIndex.removeChain(first);
+            result.valueIndex = new ValueIndex<>(first);
+        }
+        if (positionIndex != null) {
+            result.positionIndex = positionIndex.splitOff(index);
+        }
+        return result;
+    }
+    
+    /**
+     * Устойчивая сортировка перестановкой узлов
+     * 
+     * Восходящая сортировка слиянием за O(n log n): узлы не создаются
+     * и не копируются, меняются только ссылки next (prev и индекс
+     * позиций восстанавливаются одним проходом в конце). Если компаратор
+     * бросит исключение, все элементы останутся в списке, но порядок
+     * будет частично измененным.
+     * 
+     * @param c компаратор или null для естественного порядка
+     * @throws ClassCastException если c == null, а элементы не Comparable
+     */
+    @Override
+    public void sort(Comparator<? super T> c) {
+        if (size < 2) {
+            modCount++;
+            return;
+        }
+        Chain<T> chain = new Chain<>(head);
+        try {
+            mergeSort(chain, order(c));
+        } finally {
+            relinkSorted(chain.first);
+        }
+    }
+    
+    /**
+     * Устойчивая параллельная сортировка перестановкой узлов
+     * 
+     * Список делится пополам, пока части не станут короче
+     * PARALLEL_SORT_THRESHOLD; части сортируются в общем пуле ForkJoin
+     * как в {@link #sort(Comparator)}, затем попарно сливаются.
+     * Короткие списки сортируются последовательно.
+     * 
+     * @param c компаратор или null для естественного порядка
+     * @throws ClassCastException если c == null, а элементы не Comparable
+     */
+    public void parallelSort(Comparator<? super T> c) {
+        if (size < 2 * PARALLEL_SORT_THRESHOLD) {
+            sort(c);
+            return;
+        }
+        if (pinned >= 0) {
+            // История сохраняется заранее, чтобы задачи меняли только next
+            for (Node<T> current = head; current != null; current = current.next) {
+                if (current.stamp() <= pinned) {
+                    preserve(current);
+                }
+            }
+        }
+        Chain<T> chain = new Chain<>(head);
+        try {
+            ForkJoinPool.commonPool().invoke(new SortTask(chain, size, order(c)));
+        } finally {
+            relinkSorted(chain.first);
+        }
+    }
+    
+    /**
+     * Вставка в упорядоченный список с сохранением порядка
+     * 
+     * Элемент вставляется после всех равных ему. Вставка в конец
+     * (значение не меньше последнего) выполняется за O(1); иначе место
+     * ищется обходом от головы, а при включенном индексе позиций -
+     * двоичным поиском за O(log^2 n).
+     * 
+     * @param data данные для добавления
+     * @param c компаратор или null для естественного порядка
+     * @return индекс вставленного элемента
+     * @throws ClassCastException если c == null, а элементы не Comparable
+     */
+    public int insertSorted(T data, Comparator<? super T> c) {
+        long start = ListMetrics.start();
+        Comparator<? super T> order = order(c);
+        int index;
+        if (tail == null || order.compare(tail.data, data) <= 0) {
+            index = size;
+            linkLast(data);
+        } else {
+            Node<T> successor;
+            if (positionIndex != null) {
+                int low = 0;
+                int high = size - 1;  // Элемент по high заведомо больше data
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (order.compare(positionIndex.nodeAt(mid).data, data) > 0) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+                index = low;
+                successor = positionIndex.nodeAt(low);
+            } else {
+                index = 0;
+                successor = head;
+                while (order.compare(successor.data, data) <= 0) {
+                    successor = successor.next;
+                    index++;
+                }
+            }
+            linkBefore(data, successor, index);
+        }
+        ListMetrics.record(ListMetrics.Operation.ADD, start);
+        return index;
+    }
+    
+    /**
+     * Вставка в список, упорядоченный по естественному порядку
+     * 
+     * @param data данные для добавления
+     * @return индекс вставленного элемента
+     * @throws ClassCastException если элементы не Comparable
+     */
+    public int insertSorted(T data) {
+        return insertSorted(data, null);
     }
     
     /**
      * Удаление первого элемента списка
      * 
      * @return удаленный элемент
-     * @throws IllegalStateException если список пуст
+     * @throws NoSuchElementException если список пуст
      */
+    @Override
     public T removeFirst() {
         if (isEmpty()) {
-            throw new IllegalStateException("Список пуст");
-        }
-        
-        T data = head.data;
-        
-        if (size == 1) {
-            head = tail = null;
-        } else {
-            head = head.next;
-            head.prev = null;
+            throw new NoSuchElementException("Список пуст");
         }
-        size--;
+        long start = ListMetrics.start();
+        T data = unlinkFirst();
+        ListMetrics.record(ListMetrics.Operation.REMOVE_FIRST, start);
         return data;
     }
     
@@ -112,22 +459,16 @@ public class DoublyLinkedList<T> {
      * Удаление последнего элемента списка
      * 
      * @return удаленный элемент
-     * @throws IllegalStateException если список пуст
+     * @throws NoSuchElementException если список пуст
      */
+    @Override
     public T removeLast() {
         if (isEmpty()) {
-            throw new IllegalStateException("Список пуст");
-        }
-        
-        T data = tail.data;
-        
-        if (size == 1) {
-            head = tail = null;
-        } else {
-            tail = tail.prev;
-            tail.next = null;
+            throw new NoSuchElementException("Список пуст");
         }
-        size--;
+        long start = ListMetrics.start();
+        T data = unlinkLast();
+        ListMetrics.record(ListMetrics.Operation.REMOVE_LAST, start);
         return data;
     }
     
@@ -138,26 +479,17 @@ public class DoublyLinkedList<T> {
      * @return удаленный элемент
      * @throws IndexOutOfBoundsException если индекс вне диапазона
      */
+    @Override
     public T remove(int index) {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
         }
-        
-        if (index == 0) {
-            return removeFirst();
-        }
-        
-        if (index == size - 1) {
-            return removeLast();
+        long start = ListMetrics.start();
+        T data = unlink(getNodeAt(index), index);
+        if (journal != null) {
+            journal.record(MutationJournal.REMOVE, index, null);
         }
-        
-        Node<T> current = getNodeAt(index);
-        T data = current.data;
-        
-        current.prev.next = current.next;
-        current.next.prev = current.prev;
-        size--;
-        
+        ListMetrics.record(ListMetrics.Operation.REMOVE, start);
         return data;
     }
     
@@ -168,68 +500,302 @@ public class DoublyLinkedList<T> {
      * @return true если элемент был найден и удален, false иначе
      */
     public boolean removeByValue(T data) {
-        Node<T> current = head;
-        
-        while (current != null) {
-            if (current.data.equals(data)) {
-                if (current == head) {
-                    removeFirst();
-                } else if (current == tail) {
-                    removeLast();
-                } else {
-                    current.prev.next = current.next;
-                    current.next.prev = current.prev;
-                    size--;
+        return removeFirstOccurrence(data);
+    }
+    
+    /**
+     * Удаление первого вхождения элемента по значению
+     * 
+     * @param o значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+    
+    /**
+     * Удаление первого вхождения элемента при обходе от головы
+     * 
+     * @param o значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        long start = ListMetrics.start();
+        try {
+            if (valueIndex != null) {
+                Node<T> node = firstIndexed(o);
+                if (node == null) {
+                    return false;
+                }
+                unlinkOccurrence(node, -1, MutationJournal.REMOVE_VALUE);
+                return true;
+            }
+            
+            int compared = 0;
+            for (Node<T> current = head; current != null; current = current.next) {
+                compared++;
+                if (matches(o, current.data)) {
+                    ListMetrics.countEquals(compared);
+                    unlinkOccurrence(current, -1, MutationJournal.REMOVE_VALUE);
+                    return true;
+                }
+            }
+            ListMetrics.countEquals(compared);
+            return false;
+        } finally {
+            ListMetrics.record(ListMetrics.Operation.REMOVE_VALUE, start);
+        }
+    }
+    
+    /**
+     * Удаление первого вхождения элемента с возвратом его позиции
+     * 
+     * Заменяет пару indexOf и remove(int), которая проходит список
+     * дважды: позиция считается в том же проходе, что и поиск, а при
+     * включенном хеш-индексе берется из индекса позиций.
+     * 
+     * @param o значение для удаления
+     * @return индекс удаленного элемента или -1 если не найден
+     */
+    public int removeAndGetIndex(Object o) {
+        long start = ListMetrics.start();
+        try {
+            if (valueIndex != null) {
+                Node<T> node = firstIndexed(o);
+                if (node == null) {
+                    return -1;
+                }
+                int index = positionOf(node);
+                unlinkOccurrence(node, index, MutationJournal.REMOVE_VALUE);
+                return index;
+            }
+            
+            int index = 0;
+            for (Node<T> current = head; current != null; current = current.next) {
+                if (matches(o, current.data)) {
+                    ListMetrics.countEquals(index + 1);
+                    unlinkOccurrence(current, index, MutationJournal.REMOVE_VALUE);
+                    return index;
+                }
+                index++;
+            }
+            ListMetrics.countEquals(index);
+            return -1;
+        } finally {
+            ListMetrics.record(ListMetrics.Operation.REMOVE_VALUE, start);
+        }
+    }
+    
+    /**
+     * Удаление первого вхождения элемента при обходе от хвоста
+     * 
+     * @param o значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        long start = ListMetrics.start();
+        try {
+            if (valueIndex != null) {
+                Node<T> node = lastIndexed(o);
+                if (node == null) {
+                    return false;
                 }
+                unlinkOccurrence(node, -1, MutationJournal.REMOVE_LAST_VALUE);
                 return true;
             }
-            current = current.next;
+            
+            int compared = 0;
+            for (Node<T> current = tail; current != null; current = current.prev) {
+                compared++;
+                if (matches(o, current.data)) {
+                    ListMetrics.countEquals(compared);
+                    unlinkOccurrence(current, -1, MutationJournal.REMOVE_LAST_VALUE);
+                    return true;
+                }
+            }
+            ListMetrics.countEquals(compared);
+            return false;
+        } finally {
+            ListMetrics.record(ListMetrics.Operation.REMOVE_VALUE, start);
+        }
+    }
+    
+    /**
+     * Удаление всех вхождений элемента за один проход
+     * 
+     * @param o значение для удаления
+     * @return количество удаленных элементов
+     */
+    public int removeAllOccurrences(Object o) {
+        ListMetrics.countEquals(size);
+        return removeMatching(data -> matches(o, data));
+    }
+    
+    /**
+     * Удаление всех элементов, удовлетворяющих условию, за один проход
+     * 
+     * @param filter условие удаления
+     * @return true если список изменился
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter, "filter");
+        return removeMatching(filter) > 0;
+    }
+    
+    /**
+     * Удаление всех элементов, содержащихся в коллекции, за один проход
+     * 
+     * Если c не является множеством, ее элементы копируются в HashSet,
+     * и проверка каждого элемента списка занимает O(1) в среднем.
+     * 
+     * @param c коллекция удаляемых значений
+     * @return true если список изменился
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c, "c");
+        if (c.isEmpty() || isEmpty()) {
+            return false;
+        }
+        Collection<?> set = lookupSet(c);
+        return removeMatching(set::contains) > 0;
+    }
+    
+    /**
+     * Сохранение только элементов, содержащихся в коллекции, за один проход
+     * 
+     * @param c коллекция сохраняемых значений
+     * @return true если список изменился
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c, "c");
+        if (isEmpty()) {
+            return false;
         }
-        return false;
+        Collection<?> set = lookupSet(c);
+        return removeMatching(data -> !set.contains(data)) > 0;
     }
     
     /**
      * Получение элемента по индексу
      * 
+     * Найденный узел запоминается, поэтому последовательный доступ
+     * get(i), get(i + 1), ... стоит O(1) на вызов. Из-за этого get
+     * изменяет внутреннее состояние и не может вызываться из нескольких
+     * потоков одновременно даже без записи; таким читателям нужен
+     * {@link #readAt(int)}.
+     * 
      * @param index позиция элемента
      * @return данные элемента
      * @throws IndexOutOfBoundsException если индекс вне диапазона
      */
+    @Override
     public T get(int index) {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
         }
-        return getNodeAt(index).data;
+        long start = ListMetrics.start();
+        T data = getNodeAt(index).data;
+        ListMetrics.record(ListMetrics.Operation.GET, start);
+        return data;
+    }
+    
+    /**
+     * Замена элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @param data новое значение
+     * @return прежнее значение
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public T set(int index, T data) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        long start = ListMetrics.start();
+        T old = replaceData(getNodeAt(index), data, index);
+        ListMetrics.record(ListMetrics.Operation.SET, start);
+        return old;
     }
     
     /**
      * Проверка наличия элемента в списке
      * 
-     * @param data значение для поиска
+     * @param o значение для поиска
      * @return true если элемент найден, false иначе
      */
-    public boolean contains(T data) {
-        return indexOf(data) != -1;
+    @Override
+    public boolean contains(Object o) {
+        if (valueIndex != null) {
+            return valueIndex.contains(o);
+        }
+        return indexOf(o) != -1;
     }
     
     /**
      * Поиск индекса первого вхождения элемента
      * 
-     * @param data значение для поиска
+     * @param o значение для поиска
      * @return индекс элемента или -1 если не найден
      */
-    public int indexOf(T data) {
-        Node<T> current = head;
-        int index = 0;
-        
-        while (current != null) {
-            if (current.data.equals(data)) {
-                return index;
+    @Override
+    public int indexOf(Object o) {
+        long start = ListMetrics.start();
+        try {
+            if (valueIndex != null) {
+                Node<T> node = firstIndexed(o);
+                return node == null ? -1 : positionOf(node);
             }
-            current = current.next;
-            index++;
+            
+            int index = 0;
+            for (Node<T> current = head; current != null; current = current.next) {
+                if (matches(o, current.data)) {
+                    ListMetrics.countEquals(index + 1);
+                    return index;
+                }
+                index++;
+            }
+            ListMetrics.countEquals(index);
+            return -1;
+        } finally {
+            ListMetrics.record(ListMetrics.Operation.INDEX_OF, start);
+        }
+    }
+    
+    /**
+     * Поиск индекса последнего вхождения элемента
+     * 
+     * @param o значение для поиска
+     * @return индекс элемента или -1 если не найден
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        long start = ListMetrics.start();
+        try {
+            if (valueIndex != null) {
+                Node<T> node = lastIndexed(o);
+                return node == null ? -1 : positionOf(node);
+            }
+            
+            int index = size - 1;
+            for (Node<T> current = tail; current != null; current = current.prev) {
+                if (matches(o, current.data)) {
+                    ListMetrics.countEquals(size - index);
+                    return index;
+                }
+                index--;
+            }
+            ListMetrics.countEquals(size);
+            return -1;
+        } finally {
+            ListMetrics.record(ListMetrics.Operation.INDEX_OF, start);
         }
-        return -1;
     }
     
     /**
@@ -237,6 +803,7 @@ public class DoublyLinkedList<T> {
      * 
      * @return количество элементов в списке
      */
+    @Override
     public int size() {
         return size;
     }
@@ -246,6 +813,7 @@ public class DoublyLinkedList<T> {
      * 
      * @return true если список пуст, false иначе
      */
+    @Override
     public boolean isEmpty() {
         return size == 0;
     }
@@ -253,9 +821,296 @@ public class DoublyLinkedList<T> {
     /**
      * Очистка списка
      */
+    @Override
     public void clear() {
-        head = tail = null;
-        size = 0;
+        long start = ListMetrics.start();
+        if (valueIndex != null) {
+            valueIndex.clear();
+        }
+        if (positionIndex != null) {
+            positionIndex.clear();
+        }
+        if (snapshots != null) {
+            refreshPins();
+        }
+        if (pool != null && pinned < 0) {
+            // Узлы, видимые живым снимкам, в пул не возвращаются
+            pool.releaseChain(head);
+        }
+        head = tail = null;
+        size = 0;
+        finger = null;
+        modCount++;
+        if (journal != null) {
+            journal.record(MutationJournal.CLEAR, 0, null);
+        }
+        ListMetrics.record(ListMetrics.Operation.CLEAR, start);
+    }
+    
+    // Операции интерфейса Deque
+    
+    @Override
+    public boolean offerFirst(T data) {
+        addFirst(data);
+        return true;
+    }
+    
+    @Override
+    public boolean offerLast(T data) {
+        addLast(data);
+        return true;
+    }
+    
+    @Override
+    public boolean offer(T data) {
+        return offerLast(data);
+    }
+    
+    @Override
+    public void push(T data) {
+        addFirst(data);
+    }
+    
+    @Override
+    public T pollFirst() {
+        return isEmpty() ? null : removeFirst();
+    }
+    
+    @Override
+    public T pollLast() {
+        return isEmpty() ? null : removeLast();
+    }
+    
+    @Override
+    public T poll() {
+        return pollFirst();
+    }
+    
+    @Override
+    public T pop() {
+        return removeFirst();
+    }
+    
+    @Override
+    public T remove() {
+        return removeFirst();
+    }
+    
+    /**
+     * Получение первого элемента без удаления
+     * 
+     * @return первый элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return head.data;
+    }
+    
+    /**
+     * Получение последнего элемента без удаления
+     * 
+     * @return последний элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return tail.data;
+    }
+    
+    @Override
+    public T element() {
+        return getFirst();
+    }
+    
+    @Override
+    public T peekFirst() {
+        return isEmpty() ? null : head.data;
+    }
+    
+    @Override
+    public T peekLast() {
+        return isEmpty() ? null : tail.data;
+    }
+    
+    @Override
+    public T peek() {
+        return peekFirst();
+    }
+    
+    /**
+     * Получение пула узлов
+     * 
+     * @return пул узлов или null, если список создан без пула
+     */
+    public NodePool<T> getNodePool() {
+        return pool;
+    }
+    
+    /**
+     * Включение хеш-индекса значений
+     * 
+     * Индекс строится по текущему содержимому за O(n) и далее
+     * поддерживается при каждой вставке, удалении и замене. С ним
+     * contains и removeByValue работают за O(1) в среднем, а indexOf
+     * находит узел без сравнения equals с каждым элементом.
+     * Элементы не должны менять hashCode, пока находятся в списке.
+     */
+    public void enableValueIndex() {
+        if (valueIndex == null) {
+            valueIndex = new ValueIndex<>(head);
+        }
+    }
+    
+    /**
+     * Выключение хеш-индекса значений
+     */
+    public void disableValueIndex() {
+        valueIndex = null;
+    }
+    
+    /**
+     * Проверка, включен ли хеш-индекс значений
+     * 
+     * @return true если индекс включен
+     */
+    public boolean isValueIndexed() {
+        return valueIndex != null;
+    }
+    
+    /**
+     * Включение индекса позиций
+     * 
+     * Над цепочкой узлов строится дерево с размерами поддеревьев
+     * (за O(n)), после чего get, set, add и remove по индексу работают
+     * за ожидаемое O(log n). Операции с головой и хвостом по-прежнему
+     * не ищут узел, но обновляют дерево за O(log n).
+     */
+    public void enablePositionIndex() {
+        if (positionIndex == null) {
+            positionIndex = new PositionIndex<>(head);
+        }
+    }
+    
+    /**
+     * Выключение индекса позиций
+     */
+    public void disablePositionIndex() {
+        if (positionIndex != null) {
+            positionIndex = null;
+            PositionIndex.detach(head);
+        }
+    }
+    
+    /**
+     * Проверка, включен ли индекс позиций
+     * 
+     * @return true если индекс включен
+     */
+    public boolean isPositionIndexed() {
+        return positionIndex != null;
+    }
+    
+    /**
+     * Копия списка в обратном порядке
+     * 
+     * Метод нужен, чтобы разрешить конфликт одноименных методов
+     * {@code List.reversed()} и {@code Deque.reversed()} на новых JDK.
+     * В отличие от JDK, возвращается независимая копия, а не представление.
+     * 
+     * @return новый список с элементами в обратном порядке
+     */
+    public DoublyLinkedList<T> reversed() {
+        DoublyLinkedList<T> copy = new DoublyLinkedList<>();
+        for (Node<T> current = tail; current != null; current = current.prev) {
+            copy.linkLast(current.data);
+        }
+        return copy;
+    }
+    
+    // Итераторы
+    
+    @Override
+    public Iterator<T> iterator() {
+        return new ListItr(0);
+    }
+    
+    /**
+     * Двунаправленный итератор, начинающий с указанной позиции
+     * 
+     * @param index позиция первого элемента, возвращаемого next()
+     * @return итератор списка
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        return new ListItr(index);
+    }
+    
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new Iterator<T>() {
+            private final ListItr itr = new ListItr(size);
+            
+            @Override
+            public boolean hasNext() {
+                return itr.hasPrevious();
+            }
+            
+            @Override
+            public T next() {
+                return itr.previous();
+            }
+            
+            @Override
+            public void remove() {
+                itr.remove();
+            }
+        };
+    }
+    
+    /**
+     * Разделяемый итератор по диапазонам цепочки узлов
+     * 
+     * Сообщает точный размер себя и всех частей (SIZED, SUBSIZED),
+     * поэтому параллельные потоки делят список без копирования в массив.
+     * 
+     * @return разделяемый итератор по всему списку
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new NodeSpliterator(head, tail, 0, size);
+    }
+    
+    /**
+     * Последовательный поток элементов списка
+     * 
+     * @return поток элементов в порядке списка
+     */
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    
+    /**
+     * Параллельный поток элементов списка
+     * 
+     * Части списка обрабатываются в общем пуле ForkJoin.
+     * 
+     * @return параллельный поток элементов в порядке списка
+     */
+    @Override
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
     
     /**
@@ -268,13 +1123,10 @@ public class DoublyLinkedList<T> {
         }
         
         System.out.print("Прямой обход: ");
-        Node<T> current = head;
-        while (current != null) {
-            System.out.print(current.data);
-            if (current.next != null) {
-                System.out.print(" <-> ");
-            }
-            current = current.next;
+        try {
+            writeForward(System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // PrintStream не бросает IOException
         }
         System.out.println();
     }
@@ -289,39 +1141,1226 @@ public class DoublyLinkedList<T> {
         }
         
         System.out.print("Обратный обход: ");
-        Node<T> current = tail;
-        while (current != null) {
-            System.out.print(current.data);
-            if (current.prev != null) {
-                System.out.print(" <-> ");
-            }
-            current = current.prev;
+        try {
+            writeBackward(System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // PrintStream не бросает IOException
         }
         System.out.println();
     }
     
     /**
-     * Вспомогательный метод для получения узла по индексу
+     * Запись элементов от начала к концу через разделитель " <-> "
      * 
-     * @param index позиция узла
-     * @return узел на указанной позиции
+     * @param out приемник текста
+     * @throws IOException при ошибке записи в out
      */
-    private Node<T> getNodeAt(int index) {
-        Node<T> current;
+    public void writeForward(Appendable out) throws IOException {
+        writeForward(out, DEFAULT_SEPARATOR);
+    }
+    
+    /**
+     * Запись элементов от начала к концу
+     * 
+     * Список обходится один раз, текст копится в буфере и передается
+     * в out кусками по WRITE_BUFFER_SIZE символов, поэтому блокировка
+     * и сброс приемника (например, PrintStream) происходят один раз
+     * на кусок, а не на каждый элемент.
+     * 
+     * @param out приемник текста
+     * @param separator разделитель между элементами
+     * @throws IOException при ошибке записи в out
+     * @throws ConcurrentModificationException если список изменился во время записи
+     */
+    public void writeForward(Appendable out, String separator) throws IOException {
+        writeNodes(out, separator, true);
+    }
+    
+    /**
+     * Запись элементов от конца к началу через разделитель " <-> "
+     * 
+     * @param out приемник текста
+     * @throws IOException при ошибке записи в out
+     */
+    public void writeBackward(Appendable out) throws IOException {
+        writeBackward(out, DEFAULT_SEPARATOR);
+    }
+    
+    /**
+     * Запись элементов от конца к началу
+     * 
+     * @param out приемник текста
+     * @param separator разделитель между элементами
+     * @throws IOException при ошибке записи в out
+     * @throws ConcurrentModificationException если список изменился во время записи
+     */
+    public void writeBackward(Appendable out, String separator) throws IOException {
+        writeNodes(out, separator, false);
+    }
+    
+    /**
+     * Передача текста списка кусками фиксированной длины
+     * 
+     * Все куски, кроме последнего, содержат ровно chunkSize символов;
+     * граница куска может приходиться на середину элемента. Весь текст
+     * в памяти не собирается.
+     * 
+     * @param chunkSize длина куска
+     * @param separator разделитель между элементами
+     * @param forward true - от начала к концу, false - от конца к началу
+     * @param consumer получатель кусков
+     * @throws IllegalArgumentException если длина куска не положительна
+     * @throws ConcurrentModificationException если список изменился во время записи
+     */
+    public void writeChunks(int chunkSize, String separator, boolean forward, Consumer<String> consumer) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Длина куска должна быть положительной: " + chunkSize);
+        }
+        ChunkSink sink = new ChunkSink(chunkSize, consumer);
+        try {
+            writeNodes(sink, separator, forward);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // ChunkSink не бросает IOException
+        }
+        sink.finish();
+    }
+    
+    /**
+     * Неизменяемое представление текущего состояния списка за O(1)
+     * 
+     * Последующие изменения списка представление не затрагивают.
+     * Пока представление живо, изменение узла, видимого ему, сохраняет
+     * прежние data и next узла (O(1) на изменение), а удаленные узлы
+     * не возвращаются в пул. История освобождается, когда представление
+     * становится недостижимым.
+     * 
+     * Метод вызывается тем же потоком, что изменяет список; обходить
+     * представление можно из любого потока одновременно с изменениями.
+     * 
+     * @return снимок списка
+     */
+    public SnapshotView<T> snapshot() {
+        SnapshotView<T> view = new SnapshotView<>(head, size, SNAPSHOT_CLOCK.getAndIncrement());
+        if (snapshots == null) {
+            snapshots = new ArrayList<>();
+        }
+        snapshots.add(new WeakReference<>(view));
+        refreshPins();
+        return view;
+    }
+    
+    /**
+     * Сохранение списка в бинарный снимок
+     * 
+     * Файл пишется через отображение в память, значения кодируются
+     * кодеком с длиной перед каждым значением. Файл заменяется атомарно:
+     * при ошибке записи прежнее содержимое сохраняется.
+     * 
+     * @param path путь к файлу
+     * @param codec кодек значений
+     * @throws IOException при ошибке ввода-вывода
+     */
+    public void save(Path path, SnapshotCodec<? super T> codec) throws IOException {
+        Snapshot.save(this, path, codec);
+    }
+    
+    /**
+     * Сохранение списка целых чисел в компактный бинарный снимок
+     * 
+     * @param path путь к файлу
+     * @throws IOException при ошибке ввода-вывода
+     * @throws ClassCastException если в списке есть элемент не Integer
+     * @throws NullPointerException если в списке есть null
+     */
+    @SuppressWarnings("unchecked")
+    public void save(Path path) throws IOException {
+        Snapshot.save(this, path, (SnapshotCodec<? super T>) (SnapshotCodec<?>) SnapshotCodec.ofInt());
+    }
+    
+    /**
+     * Загрузка списка из бинарного снимка
+     * 
+     * @param path путь к файлу
+     * @param codec кодек значений
+     * @return новый список с элементами снимка
+     * @throws IOException при ошибке ввода-вывода или повреждении файла
+     */
+    public static <T> DoublyLinkedList<T> load(Path path, SnapshotCodec<T> codec) throws IOException {
+        return Snapshot.load(path, codec);
+    }
+    
+    /**
+     * Загрузка списка целых чисел из бинарного снимка
+     * 
+     * @param path путь к файлу
+     * @return новый список с элементами снимка
+     * @throws IOException при ошибке ввода-вывода или повреждении файла
+     */
+    public static DoublyLinkedList<Integer> load(Path path) throws IOException {
+        return Snapshot.load(path, SnapshotCodec.ofInt());
+    }
+    
+    /**
+     * Подключение журнала изменений (null - отключение)
+     */
+    void setJournal(MutationJournal<T> journal) {
+        this.journal = journal;
+    }
+    
+    /**
+     * Получение элемента по индексу без запоминания найденного узла
+     * 
+     * Не изменяет состояние списка, поэтому безопасно для нескольких
+     * читателей под общей блокировкой чтения.
+     * 
+     * @param index позиция элемента
+     * @return данные элемента
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    T readAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        long start = ListMetrics.start();
+        T data = nodeAt(index).data;
+        ListMetrics.record(ListMetrics.Operation.GET, start);
+        return data;
+    }
+    
+    /**
+     * Головной узел для обхода извне (например, оптимистичного чтения)
+     */
+    Node<T> headNode() {
+        return head;
+    }
+    
+    /**
+     * Хвостовой узел для обхода извне
+     */
+    Node<T> tailNode() {
+        return tail;
+    }
+    
+    /**
+     * Изменение ссылки next с сохранением прежнего состояния для снимков
+     */
+    private void setNext(Node<T> node, Node<T> next) {
+        if (node.stamp() <= pinned) {
+            preserve(node);
+        }
+        node.next = next;
+    }
+    
+    /**
+     * Изменение данных узла с сохранением прежнего состояния для снимков
+     */
+    private void setData(Node<T> node, T data) {
+        if (node.stamp() <= pinned) {
+            preserve(node);
+        }
+        node.data = data;
+    }
+    
+    /**
+     * Сохранение текущих data и next узла в его истории
+     * 
+     * История и новый штамп публикуются раньше, чем вызывающий
+     * изменит поля узла: читатель снимка, увидевший новые поля,
+     * увидит и штамп, по которому пойдет в историю.
+     */
+    private void preserve(Node<T> node) {
+        Node.Extra<T> extra = node.extra();
+        Node.Revision<T> revision = new Node.Revision<>(extra.stamp, node.data, node.next, extra.history);
+        // Состояния, которые сменились до самого старого живого снимка, не нужны никому
+        for (Node.Revision<T> current = revision; current.older != null; current = current.older) {
+            if (current.stamp <= oldestPinned) {
+                current.older = null;
+                break;
+            }
+        }
+        extra.history = revision;
+        VarHandle.storeStoreFence();
+        extra.stamp = pinned + 1;
+        VarHandle.storeStoreFence();
         
-        // Оптимизация: начинаем с ближайшего конца
-        if (index < size / 2) {
-            current = head;
-            for (int i = 0; i < index; i++) {
-                current = current.next;
+        if (++preservedSinceRefresh >= PIN_REFRESH_INTERVAL) {
+            refreshPins();
+        }
+    }
+    
+    /**
+     * Пересчет версий живых снимков с удалением собранных сборщиком мусора
+     */
+    private void refreshPins() {
+        preservedSinceRefresh = 0;
+        long newest = -1;
+        long oldest = -1;
+        for (Iterator<WeakReference<SnapshotView<T>>> it = snapshots.iterator(); it.hasNext(); ) {
+            SnapshotView<T> view = it.next().get();
+            if (view == null) {
+                it.remove();
+                continue;
             }
-        } else {
-            current = tail;
-            for (int i = size - 1; i > index; i--) {
-                current = current.prev;
+            newest = Math.max(newest, view.version());
+            oldest = (oldest < 0) ? view.version() : Math.min(oldest, view.version());
+        }
+        pinned = newest;
+        oldestPinned = oldest;
+    }
+    
+    /**
+     * Учет снимков другого списка, узлы которого переходят в этот
+     */
+    private void inheritSnapshots(DoublyLinkedList<T> source) {
+        if (source.snapshots == null) {
+            return;
+        }
+        if (snapshots == null) {
+            snapshots = new ArrayList<>();
+        }
+        for (WeakReference<SnapshotView<T>> reference : source.snapshots) {
+            // После split и обратного splice ссылки у списков общие
+            if (!snapshots.contains(reference)) {
+                snapshots.add(reference);
+            }
+        }
+        refreshPins();
+    }
+    
+    /**
+     * Удаление всех узлов, данные которых удовлетворяют фильтру, за один проход
+     * 
+     * Узлы исключаются по месту обхода; размер, modCount и индекс
+     * позиций обновляются один раз в конце, в том числе если фильтр
+     * бросит исключение (тогда удаленными остаются уже пройденные узлы).
+     * 
+     * @return количество удаленных элементов
+     */
+    private int removeMatching(Predicate<? super T> filter) {
+        long start = ListMetrics.start();
+        int removed = 0;
+        int index = 0;  // Позиция текущего узла в списке после удалений
+        try {
+            Node<T> current = head;
+            while (current != null) {
+                Node<T> next = current.next;
+                if (filter.test(current.data)) {
+                    detach(current);
+                    removed++;
+                    if (journal != null) {
+                        journal.record(MutationJournal.REMOVE, index, null);
+                    }
+                } else {
+                    index++;
+                }
+                current = next;
+            }
+        } finally {
+            if (removed > 0) {
+                size -= removed;
+                finger = null;
+                modCount++;
+                if (positionIndex != null) {
+                    // Перестроение за O(n) вместо O(log n) на каждый удаленный узел
+                    positionIndex = new PositionIndex<>(head);
+                }
+            }
+            ListMetrics.record(ListMetrics.Operation.REMOVE_VALUE, start);
+        }
+        return removed;
+    }
+    
+    /**
+     * Множество для проверки принадлежности элементов коллекции за O(1)
+     */
+    private static Collection<?> lookupSet(Collection<?> c) {
+        return (c instanceof Set) ? c : new HashSet<>(c);
+    }
+    
+    /**
+     * Компаратор или естественный порядок, если он не задан
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<? super T> order(Comparator<? super T> c) {
+        return c != null ? c : (Comparator<? super T>) Comparator.naturalOrder();
+    }
+    
+    /**
+     * Восходящая сортировка слиянием цепочки, оканчивающейся null
+     * 
+     * Узлы по одному переносятся в ячейки bins: ячейка i хранит
+     * упорядоченную цепочку из 2^i узлов, и при занятой ячейке цепочки
+     * сливаются, как при переносе в двоичном счетчике. Так почти все
+     * слияния идут по коротким цепочкам, узлы которых недавно
+     * просматривались и еще лежат в кеше процессора. Если компаратор
+     * бросит исключение, все цепочки склеиваются в одну, и chain
+     * остается полной.
+     */
+    private void mergeSort(Chain<T> chain, Comparator<? super T> c) {
+        @SuppressWarnings("unchecked")
+        Node<T>[] bins = (Node<T>[]) new Node<?>[Integer.SIZE];
+        Chain<T> carry = new Chain<>(null);
+        Node<T> rest = chain.first;
+        try {
+            while (rest != null) {
+                carry.first = rest;
+                rest = rest.next;
+                setNext(carry.first, null);
+                int i = 0;
+                for (; bins[i] != null; i++) {
+                    // Ячейка содержит более ранние элементы: она слева для устойчивости
+                    Node<T> later = carry.first;
+                    carry.first = bins[i];
+                    bins[i] = null;
+                    merge(carry, later, c);
+                }
+                bins[i] = carry.first;
+                carry.first = null;
+            }
+            for (int i = 0; i < bins.length; i++) {
+                if (bins[i] != null) {
+                    Node<T> later = carry.first;
+                    carry.first = bins[i];
+                    bins[i] = null;
+                    merge(carry, later, c);
+                }
+            }
+            chain.first = carry.first;
+        } catch (RuntimeException | Error e) {
+            // Склеиваем ячейки, частично слитую цепочку и необработанный остаток
+            Node<T> first = rest;
+            first = prependChain(carry.first, first);
+            for (Node<T> bin : bins) {
+                first = prependChain(bin, first);
+            }
+            chain.first = first;
+            throw e;
+        }
+    }
+    
+    /**
+     * Присоединение цепочки rest к концу цепочки first
+     * 
+     * @return начало объединенной цепочки
+     */
+    private Node<T> prependChain(Node<T> first, Node<T> rest) {
+        if (first == null) {
+            return rest;
+        }
+        Node<T> last = first;
+        while (last.next != null) {
+            last = last.next;
+        }
+        setNext(last, rest);
+        return first;
+    }
+    
+    /**
+     * Слияние упорядоченной цепочки right в упорядоченную цепочку left
+     * 
+     * При исключении компаратора остатки обеих цепочек
+     * присоединяются к уже слитой части.
+     */
+    private void merge(Chain<T> left, Node<T> right, Comparator<? super T> c) {
+        Node<T> p = left.first;
+        Node<T> q = right;
+        Node<T> out = null;
+        try {
+            while (p != null && q != null) {
+                Node<T> e;
+                if (c.compare(p.data, q.data) <= 0) {
+                    e = p;
+                    p = p.next;
+                } else {
+                    e = q;
+                    q = q.next;
+                }
+                if (out == null) {
+                    left.first = e;
+                } else {
+                    setNext(out, e);
+                }
+                out = e;
+            }
+        } finally {
+            Node<T> rest = q;
+            if (p != null) {
+                if (q != null) {
+                    Node<T> last = p;
+                    while (last.next != null) {
+                        last = last.next;
+                    }
+                    setNext(last, q);
+                }
+                rest = p;
+            }
+            if (out == null) {
+                left.first = rest;
+            } else {
+                setNext(out, rest);
+            }
+        }
+    }
+    
+    /**
+     * Восстановление prev, концов списка и индекса позиций после сортировки
+     */
+    private void relinkSorted(Node<T> first) {
+        Node<T> previous = null;
+        for (Node<T> current = first; current != null; current = current.next) {
+            current.prev = previous;
+            previous = current;
+        }
+        head = first;
+        tail = previous;
+        finger = null;
+        modCount++;
+        if (positionIndex != null) {
+            positionIndex = new PositionIndex<>(head);
+        }
+        if (journal != null) {
+            journal.record(MutationJournal.CLEAR, 0, null);
+            journal.recordChain(0, size, head);
+        }
+    }
+    
+    /**
+     * Однопроходная запись элементов через буфер
+     */
+    private void writeNodes(Appendable out, String separator, boolean forward) throws IOException {
+        int expectedModCount = modCount;
+        StringBuilder buffer = new StringBuilder(WRITE_BUFFER_SIZE + 64);
+        Node<T> first = forward ? head : tail;
+        for (Node<T> current = first; current != null; current = forward ? current.next : current.prev) {
+            if (current != first) {
+                buffer.append(separator);
+            }
+            buffer.append(current.data);
+            if (buffer.length() >= WRITE_BUFFER_SIZE) {
+                out.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        if (buffer.length() > 0) {
+            out.append(buffer);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+    
+    /**
+     * Вставка нового узла в начало списка
+     */
+    private void linkFirst(T data) {
+        Node<T> newNode = newNode(data);
+        
+        if (head == null) {
+            head = tail = newNode;
+        } else {
+            newNode.next = head;
+            head.prev = newNode;
+            head = newNode;
+        }
+        fingerIndex++;
+        linked(newNode);
+        if (journal != null) {
+            journal.record(MutationJournal.ADD_FIRST, 0, data);
+        }
+    }
+    
+    /**
+     * Вставка нового узла в конец списка
+     */
+    private void linkLast(T data) {
+        Node<T> newNode = newNode(data);
+        
+        if (tail == null) {
+            head = tail = newNode;
+        } else {
+            newNode.prev = tail;
+            setNext(tail, newNode);
+            tail = newNode;
+        }
+        linked(newNode);
+        if (journal != null) {
+            journal.record(MutationJournal.ADD_LAST, 0, data);
+        }
+    }
+    
+    /**
+     * Вставка нового узла перед существующим узлом
+     * 
+     * @param index позиция нового узла после вставки (для журнала)
+     */
+    private void linkBefore(T data, Node<T> successor, int index) {
+        if (successor == head) {
+            linkFirst(data);
+            return;
+        }
+        
+        Node<T> newNode = newNode(data);
+        newNode.next = successor;
+        newNode.prev = successor.prev;
+        setNext(successor.prev, newNode);
+        successor.prev = newNode;
+        if (index <= fingerIndex) {
+            fingerIndex++;
+        }
+        linked(newNode);
+        if (journal != null) {
+            journal.record(MutationJournal.ADD, index, data);
+        }
+    }
+    
+    /**
+     * Учет только что связанного узла
+     */
+    private void linked(Node<T> node) {
+        if (valueIndex != null) {
+            valueIndex.add(node);
+        }
+        if (positionIndex != null) {
+            positionIndex.insert(node);
+        }
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Вставка готовой цепочки узлов перед узлом successor
+     * 
+     * @param first первый узел цепочки
+     * @param last последний узел цепочки
+     * @param count количество узлов в цепочке
+     * @param successor узел, перед которым вставляется цепочка (null - в конец)
+     * @param index позиция первого узла цепочки после вставки
+     * @param chainIndex индекс позиций цепочки или null, если индекс списка выключен
+     */
+    private void linkChain(Node<T> first, Node<T> last, int count, Node<T> successor,
+                           int index, PositionIndex<T> chainIndex) {
+        Node<T> predecessor = (successor == null) ? tail : successor.prev;
+        
+        first.prev = predecessor;
+        setNext(last, successor);
+        if (predecessor == null) {
+            head = first;
+        } else {
+            setNext(predecessor, first);
+        }
+        if (successor == null) {
+            tail = last;
+        } else {
+            successor.prev = last;
+        }
+        
+        if (index <= fingerIndex) {
+            fingerIndex += count;
+        }
+        if (valueIndex != null) {
+            valueIndex.addChain(first, last);
+        }
+        if (chainIndex != null) {
+            positionIndex.insertAll(index, chainIndex);
+        }
+        size += count;
+        modCount++;
+        if (journal != null) {
+            journal.recordChain(index, count, first);
+        }
+    }
+    
+    /**
+     * Исключение головного узла с записью в журнал
+     */
+    private T unlinkFirst() {
+        T data = unlink(head, 0);
+        if (journal != null) {
+            journal.record(MutationJournal.REMOVE_FIRST, 0, null);
+        }
+        return data;
+    }
+    
+    /**
+     * Исключение хвостового узла с записью в журнал
+     */
+    private T unlinkLast() {
+        T data = unlink(tail, size - 1);
+        if (journal != null) {
+            journal.record(MutationJournal.REMOVE_LAST, 0, null);
+        }
+        return data;
+    }
+    
+    /**
+     * Исключение найденного по значению узла с записью в журнал
+     * 
+     * В журнал попадают данные узла, а не искомый объект: при
+     * воспроизведении поиск по ним находит тот же узел.
+     * 
+     * @param index позиция узла или -1, если она неизвестна
+     */
+    private void unlinkOccurrence(Node<T> node, int index, byte op) {
+        T data = unlink(node, index);
+        if (journal != null) {
+            journal.record(op, 0, data);
+        }
+    }
+    
+    /**
+     * Исключение узла из цепочки
+     * 
+     * @param index позиция узла или -1, если она неизвестна
+     * @return данные исключенного узла
+     */
+    private T unlink(Node<T> node, int index) {
+        if (finger != null) {
+            moveFinger(node, index);
+        }
+        if (positionIndex != null) {
+            positionIndex.remove(node);
+        }
+        T data = node.data;
+        detach(node);
+        size--;
+        modCount++;
+        return data;
+    }
+    
+    /**
+     * Исключение узла из цепочки и хеш-индекса без учета размера
+     * 
+     * Размер, modCount, индекс позиций и запомненный узел
+     * поддерживает вызывающий.
+     */
+    private void detach(Node<T> node) {
+        if (valueIndex != null) {
+            valueIndex.remove(node);
+        }
+        Node<T> prev = node.prev;
+        Node<T> next = node.next;
+        
+        if (prev == null) {
+            head = next;
+        } else {
+            setNext(prev, next);
+        }
+        
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        
+        node.prev = null;
+        setNext(node, null);
+        if (pool != null && pinned < 0) {
+            pool.release(node);
+        }
+    }
+    
+    /**
+     * Замена данных узла с обновлением индекса
+     * 
+     * @param index позиция узла (для журнала)
+     * @return прежние данные узла
+     */
+    private T replaceData(Node<T> node, T data, int index) {
+        T old = node.data;
+        if (valueIndex != null) {
+            valueIndex.remove(node);
+            setData(node, data);
+            valueIndex.add(node);
+        } else {
+            setData(node, data);
+        }
+        if (journal != null) {
+            journal.record(MutationJournal.SET, index, data);
+        }
+        return old;
+    }
+    
+    /**
+     * Позиция узла, найденного без обхода по индексу
+     */
+    private int positionOf(Node<T> node) {
+        if (positionIndex != null) {
+            return positionIndex.rank(node);
+        }
+        
+        int index = 0;
+        for (Node<T> current = head; current != node; current = current.next) {
+            index++;
+        }
+        return index;
+    }
+    
+    /**
+     * Первый узел со значением по хеш-индексу
+     */
+    private Node<T> firstIndexed(Object o) {
+        return positionIndex != null ? valueIndex.first(o, positionIndex) : valueIndex.first(o, head);
+    }
+    
+    /**
+     * Последний узел со значением по хеш-индексу
+     */
+    private Node<T> lastIndexed(Object o) {
+        return positionIndex != null ? valueIndex.last(o, positionIndex) : valueIndex.last(o, tail);
+    }
+    
+    /**
+     * Создание узла с учетом пула
+     */
+    private Node<T> newNode(T data) {
+        Node<T> node = (pool == null) ? new Node<>(data) : pool.obtain(data);
+        if (pinned >= 0) {
+            // Новый узел не виден живым снимкам: его история не нужна
+            node.extra().stamp = pinned + 1;
+        }
+        return node;
+    }
+    
+    /**
+     * Сравнение искомого значения с данными узла с учетом null
+     */
+    private static boolean matches(Object o, Object data) {
+        return o == null ? data == null : o.equals(data);
+    }
+    
+    /**
+     * Вспомогательный метод для получения узла по индексу с запоминанием
+     * 
+     * Найденный узел запоминается, и следующий поиск рядом с ним
+     * короче. Методы, которые могут вызываться несколькими читателями
+     * одновременно, используют {@link #nodeAt(int)}.
+     * 
+     * @param index позиция узла
+     * @return узел на указанной позиции
+     */
+    private Node<T> getNodeAt(int index) {
+        Node<T> node = nodeAt(index);
+        finger = node;
+        fingerIndex = index;
+        return node;
+    }
+    
+    /**
+     * Получение узла по индексу без изменения состояния списка
+     * 
+     * Итераторы и {@link #readAt(int)} используют только этот поиск,
+     * поэтому несколько потоков могут обходить неизменяемый список
+     * одновременно, например под блокировкой чтения.
+     * 
+     * @param index позиция узла
+     * @return узел на указанной позиции
+     */
+    private Node<T> nodeAt(int index) {
+        // Начинаем с ближайшего из головы, хвоста и последнего найденного узла
+        Node<T> current = head;
+        int position = 0;
+        int distance = index;
+        if (size - 1 - index < distance) {
+            current = tail;
+            position = size - 1;
+            distance = size - 1 - index;
+        }
+        if (finger != null && Math.abs(index - fingerIndex) < distance) {
+            current = finger;
+            position = fingerIndex;
+            distance = Math.abs(index - fingerIndex);
+        }
+        
+        if (positionIndex != null && distance > LINEAR_WALK_LIMIT) {
+            current = positionIndex.nodeAt(index);
+        } else {
+            ListMetrics.countHops(distance);
+            for (; position < index; position++) {
+                current = current.next;
+            }
+            for (; position > index; position--) {
+                current = current.prev;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Согласование последнего найденного узла с удалением узла
+     * 
+     * Если удаляется сам этот узел, он сдвигается на соседа; если
+     * позиция удаляемого узла неизвестна, запомненный узел забывается.
+     * 
+     * @param removed удаляемый узел
+     * @param index позиция удаляемого узла или -1
+     */
+    private void moveFinger(Node<T> removed, int index) {
+        if (removed == finger) {
+            if (removed.next != null) {
+                finger = removed.next;
+            } else {
+                finger = removed.prev;
+                fingerIndex--;
+            }
+        } else if (index < 0) {
+            finger = null;
+        } else if (index < fingerIndex) {
+            fingerIndex--;
+        }
+    }
+    
+    /**
+     * Двунаправленный итератор по цепочке узлов
+     * 
+     * Отслеживает modCount списка и бросает
+     * ConcurrentModificationException при изменении списка в обход итератора.
+     */
+    private class ListItr implements ListIterator<T> {
+        private Node<T> next;          // Узел, возвращаемый следующим вызовом next()
+        private Node<T> lastReturned;  // Последний возвращенный узел
+        private int nextIndex;         // Индекс узла next
+        private int expectedModCount = modCount;
+        
+        ListItr(int index) {
+            next = (index == size) ? null : nodeAt(index);
+            nextIndex = index;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+        
+        @Override
+        public T next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return lastReturned.data;
+        }
+        
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+        
+        @Override
+        public T previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            next = (next == null) ? tail : next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return lastReturned.data;
+        }
+        
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+        
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+        
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            
+            Node<T> lastNext = lastReturned.next;
+            unlink(lastReturned, (next == lastReturned) ? nextIndex : nextIndex - 1);
+            if (next == lastReturned) {
+                // Удаление после previous()
+                next = lastNext;
+            } else {
+                nextIndex--;
+            }
+            if (journal != null) {
+                journal.record(MutationJournal.REMOVE, nextIndex, null);
+            }
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+        
+        @Override
+        public void set(T data) {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            replaceData(lastReturned, data, (next == lastReturned) ? nextIndex : nextIndex - 1);
+        }
+        
+        @Override
+        public void add(T data) {
+            checkForComodification();
+            lastReturned = null;
+            if (next == null) {
+                linkLast(data);
+            } else {
+                linkBefore(data, next, nextIndex);
+            }
+            nextIndex++;
+            expectedModCount = modCount;
+        }
+        
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+    
+    /**
+     * Разделяемый итератор по диапазону узлов [first, last]
+     * 
+     * Середина диапазона ищется проходом от ближайшего из его концов,
+     * а при включенном индексе позиций - по дереву за O(log n).
+     * Изменение списка в обход итератора обнаруживается по modCount.
+     */
+    private final class NodeSpliterator implements Spliterator<T> {
+        // Диапазоны короче не делятся: проход до середины дороже выигрыша
+        private static final int MIN_SPLIT_SIZE = 1024;
+        
+        private Node<T> first;   // Первый узел диапазона
+        private final Node<T> last;  // Последний узел диапазона
+        private int index;       // Индекс узла first в списке
+        private int remaining;   // Количество узлов в диапазоне
+        private final int expectedModCount = modCount;
+        
+        NodeSpliterator(Node<T> first, Node<T> last, int index, int remaining) {
+            this.first = first;
+            this.last = last;
+            this.index = index;
+            this.remaining = remaining;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            if (remaining <= 0) {
+                return false;
+            }
+            Node<T> node = first;
+            first = node.next;
+            index++;
+            remaining--;
+            action.accept(node.data);
+            checkForComodification();
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            Node<T> current = first;
+            for (int n = remaining; n > 0; n--) {
+                action.accept(current.data);
+                current = current.next;
+            }
+            first = current;
+            index += remaining;
+            remaining = 0;
+            checkForComodification();
+        }
+        
+        @Override
+        public Spliterator<T> trySplit() {
+            if (remaining < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            checkForComodification();
+            
+            int half = remaining >>> 1;
+            Node<T> mid = nodeAtOffset(half);
+            Spliterator<T> prefix = new NodeSpliterator(first, mid.prev, index, half);
+            first = mid;
+            index += half;
+            remaining -= half;
+            return prefix;
+        }
+        
+        /**
+         * Узел на смещении offset от начала диапазона
+         */
+        private Node<T> nodeAtOffset(int offset) {
+            if (positionIndex != null) {
+                return positionIndex.nodeAt(index + offset);
+            }
+            
+            Node<T> current;
+            if (offset <= remaining - 1 - offset) {
+                current = first;
+                for (int i = 0; i < offset; i++) {
+                    current = current.next;
+                }
+            } else {
+                current = last;
+                for (int i = remaining - 1; i > offset; i--) {
+                    current = current.prev;
+                }
+            }
+            return current;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+        
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+        
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+    
+    /**
+     * Изменяемая ссылка на первый узел сортируемой цепочки
+     */
+    private static final class Chain<T> {
+        Node<T> first;
+        
+        Chain(Node<T> first) {
+            this.first = first;
+        }
+    }
+    
+    /**
+     * Задача параллельной сортировки цепочки из count узлов
+     * 
+     * Узлы цепочки принадлежат задаче до ее завершения. Даже при
+     * исключении компаратора задача дожидается обеих половин
+     * и оставляет в chain полную цепочку.
+     */
+    private final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final Chain<T> chain;
+        private final int count;
+        private final Comparator<? super T> order;
+        
+        SortTask(Chain<T> chain, int count, Comparator<? super T> order) {
+            this.chain = chain;
+            this.count = count;
+            this.order = order;
+        }
+        
+        @Override
+        protected void compute() {
+            if (count <= PARALLEL_SORT_THRESHOLD) {
+                mergeSort(chain, order);
+                return;
+            }
+            
+            int half = count / 2;
+            Node<T> last = chain.first;
+            for (int i = 1; i < half; i++) {
+                last = last.next;
+            }
+            Chain<T> right = new Chain<>(last.next);
+            setNext(last, null);
+            
+            SortTask rightTask = new SortTask(right, count - half, order);
+            rightTask.fork();
+            RuntimeException failure = null;
+            try {
+                new SortTask(chain, half, order).compute();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            try {
+                rightTask.join();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            
+            if (failure == null) {
+                merge(chain, right.first, order);
+                return;
+            }
+            // Половины остаются несортированными, но цепочка полной
+            Node<T> end = chain.first;
+            while (end.next != null) {
+                end = end.next;
+            }
+            setNext(end, right.first);
+            throw failure;
+        }
+    }
+    
+    /**
+     * Приемник текста, отдающий его кусками фиксированной длины
+     */
+    private static final class ChunkSink implements Appendable {
+        private final int chunkSize;
+        private final Consumer<String> consumer;
+        private final StringBuilder chunk;
+        
+        ChunkSink(int chunkSize, Consumer<String> consumer) {
+            this.chunkSize = chunkSize;
+            this.consumer = consumer;
+            this.chunk = new StringBuilder(Math.min(chunkSize, WRITE_BUFFER_SIZE));
+        }
+        
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+        
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            while (start < end) {
+                int n = Math.min(end - start, chunkSize - chunk.length());
+                chunk.append(csq, start, start + n);
+                start += n;
+                if (chunk.length() == chunkSize) {
+                    consumer.accept(chunk.toString());
+                    chunk.setLength(0);
+                }
+            }
+            return this;
+        }
+        
+        @Override
+        public Appendable append(char c) {
+            chunk.append(c);
+            if (chunk.length() == chunkSize) {
+                consumer.accept(chunk.toString());
+                chunk.setLength(0);
+            }
+            return this;
+        }
+        
+        /**
+         * Передача неполного последнего куска
+         */
+        void finish() {
+            if (chunk.length() > 0) {
+                consumer.accept(chunk.toString());
+                chunk.setLength(0);
             }
         }
-        
-        return current;
     }
 }
@@ -0,0 +1,475 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Двусвязный список примитивных int без упаковки
+ * 
+ * Значения и ссылки prev/next хранятся в параллельных массивах int,
+ * индексируемых номером ячейки (слота). Вместо объекта Node на элемент
+ * приходится три int (около 12 байт), а освобожденные слоты
+ * переиспользуются через список свободных ячеек.
+ */
+public class IntDoublyLinkedList {
+    private static final int NIL = -1;               // Отсутствие ссылки
+    private static final int DEFAULT_CAPACITY = 16;  // Начальная емкость
+    
+    private int[] values;  // Значения элементов
+    private int[] prev;    // Слот предыдущего элемента
+    private int[] next;    // Слот следующего элемента (в свободных слотах - следующий свободный)
+    
+    private int head;      // Слот головы списка
+    private int tail;      // Слот хвоста списка
+    private int size;      // Размер списка
+    private int used;      // Количество когда-либо занятых слотов
+    private int freeHead;  // Голова списка свободных слотов
+    private int modCount;  // Счетчик структурных изменений
+    
+    /**
+     * Конструктор пустого списка
+     */
+    public IntDoublyLinkedList() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Конструктор пустого списка с начальной емкостью
+     * 
+     * @param initialCapacity количество слотов, выделяемых сразу
+     * @throws IllegalArgumentException если емкость отрицательна
+     */
+    public IntDoublyLinkedList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Емкость: " + initialCapacity);
+        }
+        this.values = new int[initialCapacity];
+        this.prev = new int[initialCapacity];
+        this.next = new int[initialCapacity];
+        this.head = NIL;
+        this.tail = NIL;
+        this.size = 0;
+        this.used = 0;
+        this.freeHead = NIL;
+    }
+    
+    /**
+     * Добавление элемента в начало списка
+     * 
+     * @param value значение для добавления
+     */
+    public void addFirst(int value) {
+        int slot = allocate(value);
+        
+        if (head == NIL) {
+            head = tail = slot;
+        } else {
+            next[slot] = head;
+            prev[head] = slot;
+            head = slot;
+        }
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Добавление элемента в конец списка
+     * 
+     * @param value значение для добавления
+     */
+    public void addLast(int value) {
+        int slot = allocate(value);
+        
+        if (tail == NIL) {
+            head = tail = slot;
+        } else {
+            prev[slot] = tail;
+            next[tail] = slot;
+            tail = slot;
+        }
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Добавление элемента по индексу
+     * 
+     * @param index позиция для вставки
+     * @param value значение для добавления
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public void add(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        
+        if (index == 0) {
+            addFirst(value);
+            return;
+        }
+        
+        if (index == size) {
+            addLast(value);
+            return;
+        }
+        
+        int successor = getSlotAt(index);
+        int slot = allocate(value);
+        int predecessor = prev[successor];
+        
+        next[slot] = successor;
+        prev[slot] = predecessor;
+        next[predecessor] = slot;
+        prev[successor] = slot;
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Удаление первого элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    public int removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return unlink(head);
+    }
+    
+    /**
+     * Удаление последнего элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    public int removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return unlink(tail);
+    }
+    
+    /**
+     * Удаление элемента по индексу
+     * 
+     * @param index позиция элемента для удаления
+     * @return удаленный элемент
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public int remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        return unlink(getSlotAt(index));
+    }
+    
+    /**
+     * Удаление первого вхождения элемента по значению
+     * 
+     * @param value значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    public boolean removeByValue(int value) {
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            if (values[slot] == value) {
+                unlink(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Получение элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @return значение элемента
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        return values[getSlotAt(index)];
+    }
+    
+    /**
+     * Замена элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @param value новое значение
+     * @return прежнее значение
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public int set(int index, int value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        int slot = getSlotAt(index);
+        int old = values[slot];
+        values[slot] = value;
+        return old;
+    }
+    
+    /**
+     * Получение первого элемента без удаления
+     * 
+     * @return первый элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    public int getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return values[head];
+    }
+    
+    /**
+     * Получение последнего элемента без удаления
+     * 
+     * @return последний элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    public int getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return values[tail];
+    }
+    
+    /**
+     * Проверка наличия элемента в списке
+     * 
+     * @param value значение для поиска
+     * @return true если элемент найден, false иначе
+     */
+    public boolean contains(int value) {
+        return indexOf(value) != -1;
+    }
+    
+    /**
+     * Поиск индекса первого вхождения элемента
+     * 
+     * @param value значение для поиска
+     * @return индекс элемента или -1 если не найден
+     */
+    public int indexOf(int value) {
+        int index = 0;
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            if (values[slot] == value) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+    
+    /**
+     * Получение размера списка
+     * 
+     * @return количество элементов в списке
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Проверка пустоты списка
+     * 
+     * @return true если список пуст, false иначе
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Очистка списка
+     * 
+     * Массивы сохраняются для повторного использования.
+     */
+    public void clear() {
+        head = tail = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+        modCount++;
+    }
+    
+    /**
+     * Копирование элементов в массив в порядке списка
+     * 
+     * @return массив значений
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            result[i++] = values[slot];
+        }
+        return result;
+    }
+    
+    /**
+     * Итератор по значениям без упаковки
+     * 
+     * @return итератор от головы к хвосту
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int slot = head;
+            private final int expectedModCount = modCount;
+            
+            @Override
+            public boolean hasNext() {
+                return slot != NIL;
+            }
+            
+            @Override
+            public int nextInt() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (slot == NIL) {
+                    throw new NoSuchElementException();
+                }
+                int value = values[slot];
+                slot = next[slot];
+                return value;
+            }
+        };
+    }
+    
+    /**
+     * Печать списка от начала к концу
+     */
+    public void printForward() {
+        if (isEmpty()) {
+            System.out.println("Список пуст");
+            return;
+        }
+        
+        StringBuilder sb = new StringBuilder("Прямой обход: ");
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            sb.append(values[slot]);
+            if (next[slot] != NIL) {
+                sb.append(" <-> ");
+            }
+        }
+        System.out.println(sb);
+    }
+    
+    /**
+     * Печать списка от конца к началу
+     */
+    public void printBackward() {
+        if (isEmpty()) {
+            System.out.println("Список пуст");
+            return;
+        }
+        
+        StringBuilder sb = new StringBuilder("Обратный обход: ");
+        for (int slot = tail; slot != NIL; slot = prev[slot]) {
+            sb.append(values[slot]);
+            if (prev[slot] != NIL) {
+                sb.append(" <-> ");
+            }
+        }
+        System.out.println(sb);
+    }
+    
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+    
+    /**
+     * Выделение слота под новое значение
+     * 
+     * Сначала используется список свободных слотов, затем
+     * нетронутый хвост массивов, и только потом массивы расширяются.
+     * 
+     * @return номер слота с записанным значением и пустыми ссылками
+     */
+    private int allocate(int value) {
+        int slot;
+        if (freeHead != NIL) {
+            slot = freeHead;
+            freeHead = next[slot];
+        } else {
+            if (used == values.length) {
+                grow();
+            }
+            slot = used++;
+        }
+        values[slot] = value;
+        prev[slot] = NIL;
+        next[slot] = NIL;
+        return slot;
+    }
+    
+    /**
+     * Расширение параллельных массивов в полтора раза
+     */
+    private void grow() {
+        int capacity = Math.max(DEFAULT_CAPACITY, values.length + (values.length >> 1));
+        values = Arrays.copyOf(values, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+    
+    /**
+     * Исключение слота из цепочки и возврат его в список свободных
+     * 
+     * @return значение исключенного элемента
+     */
+    private int unlink(int slot) {
+        int value = values[slot];
+        int p = prev[slot];
+        int n = next[slot];
+        
+        if (p == NIL) {
+            head = n;
+        } else {
+            next[p] = n;
+        }
+        
+        if (n == NIL) {
+            tail = p;
+        } else {
+            prev[n] = p;
+        }
+        
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+        modCount++;
+        return value;
+    }
+    
+    /**
+     * Вспомогательный метод для получения слота по индексу
+     * 
+     * @param index позиция элемента
+     * @return слот элемента на указанной позиции
+     */
+    private int getSlotAt(int index) {
+        int slot;
+        
+        // Оптимизация: начинаем с ближайшего конца
+        if (index < size / 2) {
+            slot = head;
+            for (int i = 0; i < index; i++) {
+                slot = next[slot];
+            }
+        } else {
+            slot = tail;
+            for (int i = size - 1; i > index; i--) {
+                slot = prev[slot];
+            }
+        }
+        
+        return slot;
+    }
+}
@@ -0,0 +1,245 @@
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Статистика операций двусвязных списков
+ *
+ * Счетчики общие для всех экземпляров {@link DoublyLinkedList}
+ * и построены на {@link LongAdder}, поэтому не создают конкуренции
+ * между потоками. Сбор включается во время работы (-Dlist.metrics=true,
+ * {@link #setEnabled} или через JMX); выключенный сбор стоит одного
+ * чтения флага на операцию.
+ */
+public final class ListMetrics implements ListMetricsMXBean {
+    /**
+     * Имя MXBean на платформенном сервере
+     */
+    public static final String OBJECT_NAME = "DoublyLinkedList:type=ListMetrics";
+
+    // Значение start() при выключенном сборе
+    static final long DISABLED = Long.MIN_VALUE;
+
+    /**
+     * Учитываемые операции списка
+     */
+    enum Operation {
+        ADD_FIRST, ADD_LAST, ADD, REMOVE_FIRST, REMOVE_LAST, REMOVE, REMOVE_VALUE,
+        GET, SET, INDEX_OF, CLEAR
+    }
+
+    private static final ListMetrics INSTANCE = new ListMetrics();
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private static volatile boolean enabled = Boolean.getBoolean("list.metrics");
+    private static final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private static final LongAdder nodeHops = new LongAdder();
+    private static final LongAdder equalsCalls = new LongAdder();
+    private static boolean registered;
+
+    static {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    private ListMetrics() {
+    }
+
+    /**
+     * Единственный экземпляр статистики
+     */
+    public static ListMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Регистрация MXBean на платформенном сервере (повторный вызов ничего не делает)
+     *
+     * @throws IllegalStateException если регистрация не удалась
+     */
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Уже зарегистрирован другим загрузчиком классов
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать " + OBJECT_NAME, e);
+        }
+        registered = true;
+    }
+
+    // Вызовы из списка
+
+    /**
+     * Начало замера операции
+     *
+     * @return время начала или DISABLED, если сбор выключен
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Завершение замера операции
+     *
+     * @param operation операция
+     * @param start результат {@link #start()}
+     */
+    static void record(Operation operation, long start) {
+        if (start != DISABLED) {
+            latencies[operation.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    static void countHops(int hops) {
+        if (enabled) {
+            nodeHops.add(hops);
+        }
+    }
+
+    static void countEquals(int calls) {
+        if (enabled) {
+            equalsCalls.add(calls);
+        }
+    }
+
+    // ListMetricsMXBean
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        ListMetrics.enabled = enabled;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return byOperation(LatencyHistogram::count);
+    }
+
+    @Override
+    public long getNodeHops() {
+        return nodeHops.sum();
+    }
+
+    @Override
+    public long getEqualsCalls() {
+        return equalsCalls.sum();
+    }
+
+    @Override
+    public Map<String, Long> getMeanLatencyNanos() {
+        return byOperation(LatencyHistogram::mean);
+    }
+
+    @Override
+    public Map<String, Long> getMedianLatencyNanos() {
+        return byOperation(histogram -> histogram.percentile(0.5));
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanos() {
+        return byOperation(histogram -> histogram.percentile(0.99));
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+        nodeHops.reset();
+        equalsCalls.reset();
+    }
+
+    /**
+     * Значения по операциям в порядке объявления
+     */
+    private static Map<String, Long> byOperation(ToLongFunction<LatencyHistogram> value) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            result.put(operation.name(), value.applyAsLong(latencies[operation.ordinal()]));
+        }
+        return result;
+    }
+
+    /**
+     * Гистограмма задержек с интервалами по степеням двойки
+     *
+     * Интервал i содержит задержки от 2^(i-1) до 2^i - 1 нс,
+     * интервал 0 - нулевые задержки.
+     */
+    private static final class LatencyHistogram {
+        private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+        private final LongAdder total = new LongAdder();  // Сумма задержек
+
+        LatencyHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+            total.add(value);
+        }
+
+        long count() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        long mean() {
+            long count = count();
+            return count == 0 ? 0 : total.sum() / count;
+        }
+
+        /**
+         * Верхняя граница интервала, в который попадает перцентиль
+         */
+        long percentile(double fraction) {
+            long[] counts = new long[buckets.length];
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : (1L << i) - 1;  // Для i = 63 это Long.MAX_VALUE
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            total.reset();
+        }
+    }
+}
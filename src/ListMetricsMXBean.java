@@ -0,0 +1,56 @@
+import java.util.Map;
+
+/**
+ * Интерфейс управления статистикой двусвязных списков через JMX
+ *
+ * Ключи таблиц - имена операций ({@code ADD_FIRST}, {@code GET}, ...).
+ * Задержки - в наносекундах; перцентили оцениваются по степеням двойки,
+ * поэтому возвращается верхняя граница интервала.
+ */
+public interface ListMetricsMXBean {
+
+    /**
+     * Включен ли сбор статистики
+     */
+    boolean isEnabled();
+
+    /**
+     * Включение или выключение сбора статистики
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Количество вызовов по операциям
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Количество переходов по ссылкам при поиске узла по индексу
+     */
+    long getNodeHops();
+
+    /**
+     * Количество сравнений equals при поиске и удалении по значению
+     */
+    long getEqualsCalls();
+
+    /**
+     * Средняя задержка по операциям
+     */
+    Map<String, Long> getMeanLatencyNanos();
+
+    /**
+     * Медиана задержки по операциям
+     */
+    Map<String, Long> getMedianLatencyNanos();
+
+    /**
+     * 99-й перцентиль задержки по операциям
+     */
+    Map<String, Long> getP99LatencyNanos();
+
+    /**
+     * Обнуление всех счетчиков
+     */
+    void reset();
+}
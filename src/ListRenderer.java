@@ -0,0 +1,89 @@
+import javafx.scene.control.ScrollPane;
+
+/**
+ * Способ отображения двусвязного списка в окне приложения
+ *
+ * Все реализации используют общую геометрию: узлы располагаются
+ * в один ряд с постоянным шагом, а ширина содержимого вычисляется
+ * по размеру списка.
+ */
+interface ListRenderer {
+    double NODE_RADIUS = 30;
+    double NODE_SPACING = 120;
+    double START_X = 60;
+    double START_Y = 100;
+    double MIN_HEIGHT = 500;
+
+    /**
+     * Получение компонента для размещения в окне
+     */
+    ScrollPane getView();
+
+    /**
+     * Полная перерисовка видимой части списка
+     *
+     * Нужна после изменений, не описываемых одной вставкой или удалением
+     * (очистка, массовая загрузка).
+     */
+    void refresh();
+
+    /**
+     * Обновление после вставки одного элемента
+     *
+     * Перерисовываются только фигуры, затронутые вставкой.
+     *
+     * @param index позиция вставленного элемента
+     * @param value вставленное значение
+     */
+    void inserted(int index, Integer value);
+
+    /**
+     * Обновление после удаления одного элемента
+     *
+     * @param index позиция, которую занимал удаленный элемент
+     */
+    void removed(int index);
+
+    /**
+     * Ширина содержимого, вмещающего все узлы списка
+     */
+    static double contentWidth(int size) {
+        return START_X + Math.max(size - 1, 0) * NODE_SPACING + NODE_RADIUS + START_X;
+    }
+
+    /**
+     * X-координата центра узла с индексом
+     */
+    static double nodeX(int index) {
+        return START_X + index * NODE_SPACING;
+    }
+
+    /**
+     * Индекс первого узла, который (вместе со стрелками к следующему) виден начиная с x
+     */
+    static int firstVisible(double x) {
+        return Math.max(0, (int) Math.floor((x - START_X - NODE_SPACING + NODE_RADIUS) / NODE_SPACING));
+    }
+
+    /**
+     * Индекс последнего узла, видимого левее x
+     */
+    static int lastVisible(double x, int size) {
+        return Math.min(size - 1, (int) Math.ceil((x - START_X + NODE_RADIUS) / NODE_SPACING));
+    }
+
+    /**
+     * Левая граница видимой области в координатах содержимого
+     *
+     * @param scrollPane прокручиваемая область
+     * @param contentWidth ширина содержимого
+     */
+    static double horizontalOffset(ScrollPane scrollPane, double contentWidth) {
+        double scrollable = Math.max(0, contentWidth - scrollPane.getViewportBounds().getWidth());
+        double range = scrollPane.getHmax() - scrollPane.getHmin();
+        if (range <= 0) {
+            return 0;
+        }
+        return (scrollPane.getHvalue() - scrollPane.getHmin()) / range * scrollable;
+    }
+}
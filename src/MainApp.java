@@ -1,26 +1,50 @@
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
-import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+
 public class MainApp extends Application {
 
+    private static final String SCENE_BACKEND = "Узлы сцены";
+    private static final String CANVAS_BACKEND = "Canvas";
+    // Емкость журнала операций (-Dlog.capacity=...)
+    private static final int LOG_CAPACITY = Integer.getInteger("log.capacity", 10_000);
+    // Символов в одной строке журнала при выводе обхода
+    private static final int PRINT_CHUNK_SIZE = 4096;
+
     private DoublyLinkedList<Integer> list;
-    private TextArea outputArea;
+    private OperationLog operationLog;
     private TextField valueField;
     private TextField indexField;
-    private Pane visualPane;
+    private ListRenderer renderer;
+    private VBox visualPanel;
+    private VBox controlPanel;
+
+    // Массовые операции
+    private final ExecutorService workloadExecutor = BulkWorkload.newExecutor();
+    private Task<DoublyLinkedList<Integer>> runningWorkload;
+    private TextField countField;
+    private ProgressBar workloadProgress;
+    private Label workloadStatus;
+    private Button cancelWorkloadBtn;
+    private final List<Button> workloadButtons = new ArrayList<>();
 
     @Override
     public void start(Stage primaryStage) {
+        ListMetrics.register();
         list = new DoublyLinkedList<>();
 
         // Главный контейнер
@@ -38,11 +62,11 @@ public class MainApp extends Application {
         root.setTop(titleBox);
 
         // Панель ввода и кнопок
-        VBox controlPanel = createControlPanel();
+        controlPanel = createControlPanel();
         root.setLeft(controlPanel);
 
         // Панель визуализации
-        VBox visualPanel = createVisualPanel();
+        visualPanel = createVisualPanel();
         root.setCenter(visualPanel);
 
         // Панель вывода
@@ -57,6 +81,11 @@ public class MainApp extends Application {
         updateVisualization();
     }
 
+    @Override
+    public void stop() {
+        workloadExecutor.shutdownNow();
+    }
+
     /**
      * Создание панели управления с кнопками
      */
@@ -180,23 +209,88 @@ public class MainApp extends Application {
         visualLabel.setFont(new Font("Times New Roman", 16));
         visualLabel.setStyle("-fx-font-weight: bold;");
 
-        ScrollPane scrollPane = new ScrollPane();
-        scrollPane.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
-        scrollPane.setFitToWidth(true);
-        scrollPane.setFitToHeight(true);
+        // Выбор способа отрисовки
+        ComboBox<String> backendBox = new ComboBox<>();
+        backendBox.getItems().addAll(SCENE_BACKEND, CANVAS_BACKEND);
+        backendBox.setValue(SCENE_BACKEND);
+        backendBox.setOnAction(e -> switchRenderer(backendBox.getValue()));
 
-        visualPane = new Pane();
-        visualPane.setMinHeight(500);
-        visualPane.setStyle("-fx-background-color: #ecf0f1;");
+        HBox header = new HBox(10, visualLabel, backendBox);
+        header.setAlignment(Pos.CENTER);
 
-        scrollPane.setContent(visualPane);
+        renderer = new VirtualListRenderer(list);
+        ScrollPane scrollPane = renderer.getView();
         VBox.setVgrow(scrollPane, Priority.ALWAYS);
 
-        panel.getChildren().addAll(visualLabel, scrollPane);
+        panel.getChildren().addAll(header, scrollPane, createWorkloadPanel());
 
         return panel;
     }
 
+    /**
+     * Создание панели массовых операций
+     */
+    private HBox createWorkloadPanel() {
+        countField = new TextField("1000000");
+        countField.setPromptText("Количество");
+        countField.setPrefWidth(100);
+
+        Button generateBtn = createStyledButton("Сгенерировать", "#2196F3");
+        generateBtn.setOnAction(e -> generateList());
+
+        Button loadBtn = createStyledButton("Загрузить из файла", "#2196F3");
+        loadBtn.setOnAction(e -> loadList());
+
+        Button scriptBtn = createStyledButton("Выполнить сценарий", "#2196F3");
+        scriptBtn.setOnAction(e -> runScript());
+
+        Button saveBtn = createStyledButton("Сохранить", "#2196F3");
+        saveBtn.setOnAction(e -> saveSnapshot());
+
+        Button loadSnapshotBtn = createStyledButton("Открыть снимок", "#2196F3");
+        loadSnapshotBtn.setOnAction(e -> loadSnapshot());
+
+        workloadButtons.addAll(List.of(generateBtn, loadBtn, scriptBtn, saveBtn, loadSnapshotBtn));
+
+        workloadProgress = new ProgressBar(0);
+        workloadProgress.setPrefWidth(120);
+        workloadStatus = new Label();
+
+        cancelWorkloadBtn = createStyledButton("Отмена", "#e74c3c");
+        cancelWorkloadBtn.setDisable(true);
+        cancelWorkloadBtn.setOnAction(e -> {
+            runningWorkload.cancel();
+            // Операции станут доступны, когда фоновый поток действительно завершится
+            cancelWorkloadBtn.setDisable(true);
+        });
+
+        HBox panel = new HBox(10, countField, generateBtn, loadBtn, scriptBtn, saveBtn, loadSnapshotBtn,
+                workloadProgress, cancelWorkloadBtn, workloadStatus);
+        panel.setAlignment(Pos.CENTER_LEFT);
+        return panel;
+    }
+
+    /**
+     * Замена способа отрисовки списка
+     *
+     * Узлы сцены удобнее для небольших списков, Canvas расходует
+     * намного меньше памяти и быстрее перерисовывается на больших.
+     */
+    private void switchRenderer(String backend) {
+        ListRenderer next = CANVAS_BACKEND.equals(backend)
+                ? new CanvasListRenderer(list)
+                : new VirtualListRenderer(list);
+
+        ScrollPane oldView = renderer.getView();
+        ScrollPane newView = next.getView();
+        VBox.setVgrow(newView, Priority.ALWAYS);
+        visualPanel.getChildren().set(visualPanel.getChildren().indexOf(oldView), newView);
+        newView.setHvalue(oldView.getHvalue());
+
+        renderer = next;
+        updateVisualization();
+    }
+
     /**
      * Создание панели вывода
      */
@@ -211,136 +305,28 @@ public class MainApp extends Application {
         outputLabel.setFont(new Font("Times New Roman", 16));
         outputLabel.setStyle("-fx-font-weight: bold;");
 
-        outputArea = new TextArea();
-        outputArea.setEditable(false);
-        outputArea.setWrapText(true);
-        outputArea.setPrefRowCount(30);
-        outputArea.setStyle("-fx-font-family: 'Times New Roman'; -fx-font-size: 12px;");
-        VBox.setVgrow(outputArea, Priority.ALWAYS);
+        operationLog = new OperationLog(LOG_CAPACITY);
+        ListView<String> logView = operationLog.getView();
+        logView.setStyle("-fx-font-family: 'Times New Roman'; -fx-font-size: 12px;");
+        VBox.setVgrow(logView, Priority.ALWAYS);
 
-        panel.getChildren().addAll(outputLabel, outputArea);
+        Label statsLabel = new Label("Статистика");
+        statsLabel.setFont(new Font("Times New Roman", 16));
+        statsLabel.setStyle("-fx-font-weight: bold;");
+
+        panel.getChildren().addAll(outputLabel, logView, statsLabel, new StatsPanel().getView());
 
         return panel;
     }
 
     /**
-     * Визуализация двусвязного списка
+     * Полная перерисовка визуализации списка
+     *
+     * Одиночные вставки и удаления сообщаются визуализации напрямую
+     * через inserted/removed, чтобы обновлялись только затронутые узлы.
      */
     private void updateVisualization() {
-        visualPane.getChildren().clear();
-
-        if (list.isEmpty()) {
-            Text emptyText = new Text("Список пуст");
-            emptyText.setFont(new Font("Times New Roman", 18));
-            emptyText.setFill(Color.GRAY);
-            emptyText.setX(visualPane.getWidth() / 2 - 50);
-            emptyText.setY(visualPane.getHeight() / 2);
-            visualPane.getChildren().add(emptyText);
-            return;
-        }
-
-        int nodeRadius = 30;
-        int nodeSpacing = 120;
-        int startX = 60;
-        int startY = 100;
-
-        // Рисуем узлы и связи
-        for (int i = 0; i < list.size(); i++) {
-            int x = startX + i * nodeSpacing;
-            int y = startY;
-
-            // Круг узла
-            Circle circle = new Circle(x, y, nodeRadius);
-            circle.setFill(Color.web("#3498db"));
-            circle.setStroke(Color.web("#2980b9"));
-            circle.setStrokeWidth(3);
-
-            // Значение узла
-            Text valueText = new Text(String.valueOf(list.get(i)));
-            valueText.setFont(new Font("Times New Roman", 20));
-            valueText.setFill(Color.WHITE);
-            valueText.setStyle("-fx-font-weight: bold;");
-
-            // Центрируем текст
-            valueText.setX(x - valueText.getLayoutBounds().getWidth() / 2);
-            valueText.setY(y + valueText.getLayoutBounds().getHeight() / 4);
-
-            // Индекс узла
-            Text indexText = new Text("[" + i + "]");
-            indexText.setFont(new Font("Times New Roman", 12));
-            indexText.setFill(Color.DARKGRAY);
-            indexText.setX(x - indexText.getLayoutBounds().getWidth() / 2);
-            indexText.setY(y + nodeRadius + 20);
-
-            visualPane.getChildren().addAll(circle, valueText, indexText);
-
-            // Рисуем стрелки к следующему узлу
-            if (i < list.size() - 1) {
-                int nextX = startX + (i + 1) * nodeSpacing;
-
-                // Стрелка вперед (сверху)
-                Line forwardLine = new Line(x + nodeRadius, y - 10, nextX - nodeRadius, y - 10);
-                forwardLine.setStroke(Color.web("#2ecc71"));
-                forwardLine.setStrokeWidth(2);
-
-                // Наконечник стрелки вперед
-                Line arrowHead1 = new Line(nextX - nodeRadius, y - 10, nextX - nodeRadius - 10, y - 15);
-                arrowHead1.setStroke(Color.web("#2ecc71"));
-                arrowHead1.setStrokeWidth(2);
-
-                Line arrowHead2 = new Line(nextX - nodeRadius, y - 10, nextX - nodeRadius - 10, y - 5);
-                arrowHead2.setStroke(Color.web("#2ecc71"));
-                arrowHead2.setStrokeWidth(2);
-
-                // Стрелка назад (снизу)
-                Line backwardLine = new Line(nextX - nodeRadius, y + 10, x + nodeRadius, y + 10);
-                backwardLine.setStroke(Color.web("#e74c3c"));
-                backwardLine.setStrokeWidth(2);
-
-                // Наконечник стрелки назад
-                Line arrowHead3 = new Line(x + nodeRadius, y + 10, x + nodeRadius + 10, y + 5);
-                arrowHead3.setStroke(Color.web("#e74c3c"));
-                arrowHead3.setStrokeWidth(2);
-
-                Line arrowHead4 = new Line(x + nodeRadius, y + 10, x + nodeRadius + 10, y + 15);
-                arrowHead4.setStroke(Color.web("#e74c3c"));
-                arrowHead4.setStrokeWidth(2);
-
-                visualPane.getChildren().addAll(
-                        forwardLine, arrowHead1, arrowHead2,
-                        backwardLine, arrowHead3, arrowHead4);
-            }
-
-            // Метки HEAD и TAIL
-            if (i == 0) {
-                Text headLabel = new Text("HEAD");
-                headLabel.setFont(new Font("Times New Roman", 14));
-                headLabel.setFill(Color.web("#2ecc71"));
-                headLabel.setStyle("-fx-font-weight: bold;");
-                headLabel.setX(x - headLabel.getLayoutBounds().getWidth() / 2);
-                headLabel.setY(y - nodeRadius - 10);
-                visualPane.getChildren().add(headLabel);
-            }
-
-            if (i == list.size() - 1) {
-                Text tailLabel = new Text("TAIL");
-                tailLabel.setFont(new Font("Times New Roman", 14));
-                tailLabel.setFill(Color.web("#e74c3c"));
-                tailLabel.setStyle("-fx-font-weight: bold;");
-                tailLabel.setX(x - tailLabel.getLayoutBounds().getWidth() / 2);
-                tailLabel.setY(y - nodeRadius - 10);
-                visualPane.getChildren().add(tailLabel);
-            }
-        }
-
-        // Информация о размере
-        Text sizeInfo = new Text("Размер списка: " + list.size());
-        sizeInfo.setFont(new Font("Times New Roman", 16));
-        sizeInfo.setFill(Color.web("#34495e"));
-        sizeInfo.setStyle("-fx-font-weight: bold;");
-        sizeInfo.setX(20);
-        sizeInfo.setY(30);
-        visualPane.getChildren().add(sizeInfo);
+        renderer.refresh();
     }
 
     // Обработчики операций
@@ -350,7 +336,7 @@ public class MainApp extends Application {
             int value = Integer.parseInt(valueField.getText());
             list.addFirst(value);
             logOperation("✓ Добавлен элемент " + value + " в начало списка");
-            updateVisualization();
+            renderer.inserted(0, value);
             valueField.clear();
         } catch (NumberFormatException e) {
             showError("Введите корректное число");
@@ -362,7 +348,7 @@ public class MainApp extends Application {
             int value = Integer.parseInt(valueField.getText());
             list.addLast(value);
             logOperation("✓ Добавлен элемент " + value + " в конец списка");
-            updateVisualization();
+            renderer.inserted(list.size() - 1, value);
             valueField.clear();
         } catch (NumberFormatException e) {
             showError("Введите корректное число");
@@ -375,7 +361,7 @@ public class MainApp extends Application {
             int index = Integer.parseInt(indexField.getText());
             list.add(index, value);
             logOperation("✓ Добавлен элемент " + value + " на позицию " + index);
-            updateVisualization();
+            renderer.inserted(index, value);
             valueField.clear();
             indexField.clear();
         } catch (NumberFormatException e) {
@@ -389,8 +375,8 @@ public class MainApp extends Application {
         try {
             int removed = list.removeFirst();
             logOperation("✓ Удален первый элемент: " + removed);
-            updateVisualization();
-        } catch (IllegalStateException e) {
+            renderer.removed(0);
+        } catch (NoSuchElementException e) {
             showError(e.getMessage());
         }
     }
@@ -399,8 +385,8 @@ public class MainApp extends Application {
         try {
             int removed = list.removeLast();
             logOperation("✓ Удален последний элемент: " + removed);
-            updateVisualization();
-        } catch (IllegalStateException e) {
+            renderer.removed(list.size());
+        } catch (NoSuchElementException e) {
             showError(e.getMessage());
         }
     }
@@ -410,7 +396,7 @@ public class MainApp extends Application {
             int index = Integer.parseInt(indexField.getText());
             int removed = list.remove(index);
             logOperation("✓ Удален элемент на позиции " + index + ": " + removed);
-            updateVisualization();
+            renderer.removed(index);
             indexField.clear();
         } catch (NumberFormatException e) {
             showError("Введите корректный индекс");
@@ -422,13 +408,14 @@ public class MainApp extends Application {
     private void removeByValue() {
         try {
             int value = Integer.parseInt(valueField.getText());
-            boolean removed = list.removeByValue(value);
-            if (removed) {
+            // Позиция нужна визуализации, чтобы обновить только затронутые узлы
+            int index = list.removeAndGetIndex(value);
+            if (index != -1) {
                 logOperation("✓ Удален элемент со значением: " + value);
+                renderer.removed(index);
             } else {
                 logOperation("✗ Элемент " + value + " не найден");
             }
-            updateVisualization();
             valueField.clear();
         } catch (NumberFormatException e) {
             showError("Введите корректное число");
@@ -473,14 +460,8 @@ public class MainApp extends Application {
             return;
         }
 
-        StringBuilder sb = new StringBuilder("Прямой обход: ");
-        for (int i = 0; i < list.size(); i++) {
-            sb.append(list.get(i));
-            if (i < list.size() - 1) {
-                sb.append(" <-> ");
-            }
-        }
-        logOperation(sb.toString());
+        logOperation("Прямой обход (" + list.size() + " элементов):");
+        list.writeChunks(PRINT_CHUNK_SIZE, DoublyLinkedList.DEFAULT_SEPARATOR, true, this::logOperation);
     }
 
     private void printBackward() {
@@ -489,18 +470,143 @@ public class MainApp extends Application {
             return;
         }
 
-        StringBuilder sb = new StringBuilder("Обратный обход: ");
-        for (int i = list.size() - 1; i >= 0; i--) {
-            sb.append(list.get(i));
-            if (i > 0) {
-                sb.append(" <-> ");
+        logOperation("Обратный обход (" + list.size() + " элементов):");
+        list.writeChunks(PRINT_CHUNK_SIZE, DoublyLinkedList.DEFAULT_SEPARATOR, false, this::logOperation);
+    }
+
+    // Массовые операции
+
+    private void generateList() {
+        try {
+            int count = Integer.parseInt(countField.getText());
+            runWorkload(BulkWorkload.generate(count), null);
+        } catch (NumberFormatException e) {
+            showError("Введите корректное количество");
+        } catch (IllegalArgumentException e) {
+            showError(e.getMessage());
+        }
+    }
+
+    private void loadList() {
+        File file = chooseFile("Файл с числами");
+        if (file != null) {
+            runWorkload(BulkWorkload.load(file.toPath()), null);
+        }
+    }
+
+    private void runScript() {
+        File file = chooseFile("Файл сценария");
+        if (file != null) {
+            // Узлы списка передаются задаче целиком и возвращаются по ее завершении
+            DoublyLinkedList<Integer> borrowed = list.split(0);
+            updateVisualization();
+            runWorkload(BulkWorkload.script(file.toPath(), borrowed), borrowed);
+        }
+    }
+
+    private void saveSnapshot() {
+        FileChooser chooser = snapshotChooser("Сохранение снимка");
+        File file = chooser.showSaveDialog(visualPanel.getScene().getWindow());
+        if (file != null) {
+            runWorkload(BulkWorkload.saveSnapshot(file.toPath(), list), null);
+        }
+    }
+
+    private void loadSnapshot() {
+        FileChooser chooser = snapshotChooser("Открытие снимка");
+        File file = chooser.showOpenDialog(visualPanel.getScene().getWindow());
+        if (file != null) {
+            runWorkload(BulkWorkload.loadSnapshot(file.toPath()), null);
+        }
+    }
+
+    private FileChooser snapshotChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Снимок списка", "*.dls"));
+        return chooser;
+    }
+
+    private File chooseFile(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        return chooser.showOpenDialog(visualPanel.getScene().getWindow());
+    }
+
+    /**
+     * Запуск массовой операции в фоновом потоке
+     *
+     * Пока задача выполняется, обычные операции недоступны.
+     * Непустой результат задачи заменяет содержимое списка одной операцией splice.
+     *
+     * Завершение обрабатывается только после возврата из call() в фоновом
+     * потоке, а не по событию отмены: Task.cancel() сообщает об отмене сразу,
+     * хотя call() еще может работать со списком задачи.
+     *
+     * @param task задача, строящая итоговый список
+     * @param borrowed список, отданный задаче (возвращается при отмене
+     *                 или ошибке), или null, если задача строит новый список
+     */
+    private void runWorkload(Task<DoublyLinkedList<Integer>> task, DoublyLinkedList<Integer> borrowed) {
+        runningWorkload = task;
+        setWorkloadRunning(true);
+        workloadProgress.progressProperty().bind(task.progressProperty());
+        workloadStatus.textProperty().bind(task.messageProperty());
+
+        long startTime = System.nanoTime();
+        workloadExecutor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                // Task публикует свое состояние через runLater до возврата из run(),
+                // поэтому к моменту этого вызова оно уже окончательное
+                Platform.runLater(() -> {
+                    switch (task.getState()) {
+                        case SUCCEEDED:
+                            finishWorkload(task.getValue(), "✓ " + task.getMessage() + " за "
+                                    + (System.nanoTime() - startTime) / 1_000_000 + " мс");
+                            break;
+                        case FAILED:
+                            finishWorkload(borrowed,
+                                    "✗ " + task.getMessage() + ": " + task.getException().getMessage());
+                            break;
+                        default:
+                            finishWorkload(borrowed, "✗ " + task.getMessage() + ": отменено");
+                            break;
+                    }
+                });
             }
+        });
+    }
+
+    private void finishWorkload(DoublyLinkedList<Integer> result, String message) {
+        workloadProgress.progressProperty().unbind();
+        workloadStatus.textProperty().unbind();
+        workloadStatus.setText("");
+        setWorkloadRunning(false);
+        runningWorkload = null;
+
+        if (result != null) {
+            list.clear();
+            list.splice(result);
+        }
+        logOperation(message + ". Размер списка: " + list.size());
+        updateVisualization();
+    }
+
+    /**
+     * Блокировка операций, которые нельзя выполнять одновременно с массовой
+     */
+    private void setWorkloadRunning(boolean running) {
+        controlPanel.setDisable(running);
+        for (Button button : workloadButtons) {
+            button.setDisable(running);
         }
-        logOperation(sb.toString());
+        cancelWorkloadBtn.setDisable(!running);
     }
 
     private void logOperation(String message) {
-        outputArea.appendText(message + "\n");
+        operationLog.append(message);
     }
 
     private void showError(String message) {
@@ -0,0 +1,614 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал изменений списка для восстановления после сбоя
+ *
+ * Каждое изменение списка записывается в журнал компактной бинарной
+ * записью. Записи копятся в памяти и сбрасываются на диск с fsync
+ * пачками (group commit): по таймеру, при накоплении maxBatchBytes
+ * или по явному вызову {@link #sync()}. Поэтому одно изменение стоит
+ * кодирования записи в буфер, а не отдельного fsync.
+ *
+ * В каталоге журнала лежат снимки {@code snapshot-N.dls} и сегменты
+ * журнала {@code journal-N.log}. Снимок с номером N содержит результат
+ * всех сегментов с номерами до N включительно. При открытии загружается
+ * последний снимок, поверх него воспроизводятся более новые сегменты,
+ * а оборванная при сбое последняя запись отбрасывается. Сжатие
+ * ({@link #compact()}) начинает новый сегмент и в фоне сворачивает
+ * предыдущие в новый снимок, не останавливая запись в список.
+ *
+ * Формат сегмента: int MAGIC, int VERSION, далее записи вида
+ * int длина тела, int CRC32 тела, тело (byte код операции и аргументы).
+ *
+ * @param <T> тип данных, хранящихся в списке
+ */
+public final class MutationJournal<T> implements Closeable {
+    // Коды операций
+    static final byte ADD_FIRST = 1;
+    static final byte ADD_LAST = 2;
+    static final byte ADD = 3;
+    static final byte REMOVE_FIRST = 4;
+    static final byte REMOVE_LAST = 5;
+    static final byte REMOVE = 6;
+    static final byte REMOVE_VALUE = 7;
+    static final byte REMOVE_LAST_VALUE = 8;
+    static final byte SET = 9;
+    static final byte CLEAR = 10;
+    static final byte TRUNCATE = 11;
+    static final byte ADD_ALL = 12;
+
+    private static final int MAGIC = 0x444C4A4C;  // "DLJL"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int FRAME_HEADER_SIZE = 8;  // Длина тела и CRC32
+    private static final int NULL_LENGTH = -1;
+    private static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 10;
+    private static final int DEFAULT_MAX_BATCH_BYTES = 1 << 20;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dls";
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+
+    private final Path directory;
+    private final SnapshotCodec<T> codec;
+    private final DoublyLinkedList<T> list;
+    private final int maxBatchBytes;
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService compactor;
+
+    private final Object bufferLock = new Object();  // Защищает pending
+    private ByteBuffer pending;                      // Записи, еще не отданные на диск
+
+    private final Object flushLock = new Object();   // Защищает writing, channel и generation
+    private ByteBuffer writing;                      // Пачка, записываемая на диск
+    private FileChannel channel;                     // Текущий сегмент
+    private long generation;                         // Номер текущего сегмента
+
+    private CompletableFuture<Void> compaction = CompletableFuture.completedFuture(null);
+    private volatile IOException failure;            // Ошибка фонового сброса
+    private volatile boolean closed;
+
+    private MutationJournal(Path directory, SnapshotCodec<T> codec, DoublyLinkedList<T> list,
+                            long generation, long commitIntervalMillis, int maxBatchBytes) throws IOException {
+        this.directory = directory;
+        this.codec = codec;
+        this.list = list;
+        this.maxBatchBytes = maxBatchBytes;
+        this.pending = ByteBuffer.allocate(Math.min(maxBatchBytes, 1 << 16));
+        this.writing = ByteBuffer.allocate(pending.capacity());
+        this.generation = generation;
+        this.channel = createSegment(generation);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(daemon("journal-flush"));
+        this.compactor = Executors.newSingleThreadExecutor(daemon("journal-compact"));
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                commitIntervalMillis, commitIntervalMillis, TimeUnit.MILLISECONDS);
+
+        list.setJournal(this);
+    }
+
+    /**
+     * Открытие журнала с параметрами по умолчанию (10 мс, 1 МБ)
+     *
+     * @param directory каталог журнала (создается при отсутствии)
+     * @param codec кодек значений
+     * @return журнал с восстановленным списком
+     * @throws IOException при ошибке ввода-вывода или повреждении снимка
+     */
+    public static <T> MutationJournal<T> open(Path directory, SnapshotCodec<T> codec) throws IOException {
+        return open(directory, codec, DEFAULT_COMMIT_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_BYTES);
+    }
+
+    /**
+     * Открытие журнала с восстановлением списка
+     *
+     * @param directory каталог журнала (создается при отсутствии)
+     * @param codec кодек значений
+     * @param commitIntervalMillis наибольшая задержка между изменением и его fsync
+     * @param maxBatchBytes размер пачки, при котором сброс начинается досрочно
+     * @return журнал с восстановленным списком
+     * @throws IOException при ошибке ввода-вывода или повреждении снимка
+     * @throws IllegalArgumentException если параметры не положительны
+     */
+    public static <T> MutationJournal<T> open(Path directory, SnapshotCodec<T> codec,
+                                              long commitIntervalMillis, int maxBatchBytes) throws IOException {
+        Objects.requireNonNull(codec, "codec");
+        if (commitIntervalMillis <= 0 || maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("Интервал и размер пачки должны быть положительными");
+        }
+        Files.createDirectories(directory);
+        deleteTemporaryFiles(directory);
+
+        long base = latestSnapshot(directory);
+        DoublyLinkedList<T> list = (base > 0)
+                ? Snapshot.load(snapshotPath(directory, base), codec)
+                : new DoublyLinkedList<>();
+
+        long last = base;
+        for (long segment : journalGenerations(directory)) {
+            if (segment > base) {
+                replay(journalPath(directory, segment), list, codec, true);
+            }
+            last = Math.max(last, segment);
+        }
+        return new MutationJournal<>(directory, codec, list, last + 1, commitIntervalMillis, maxBatchBytes);
+    }
+
+    /**
+     * Восстановленный список, изменения которого записываются в журнал
+     */
+    public DoublyLinkedList<T> list() {
+        return list;
+    }
+
+    /**
+     * Ожидание записи на диск всех уже сделанных изменений
+     *
+     * @throws IOException при ошибке записи (в том числе фоновой)
+     */
+    public void sync() throws IOException {
+        checkFailure();
+        flush();
+    }
+
+    /**
+     * Сжатие журнала в новый снимок в фоне
+     *
+     * Текущий сегмент закрывается, новые изменения идут в следующий.
+     * Фоновая задача загружает последний снимок, воспроизводит закрытые
+     * сегменты и записывает результат как новый снимок, после чего
+     * удаляет ставшие ненужными файлы. Если сжатие уже идет,
+     * возвращается его результат.
+     *
+     * @return завершение сжатия
+     */
+    public synchronized CompletableFuture<Void> compact() {
+        if (!compaction.isDone()) {
+            return compaction;
+        }
+        long sealed;
+        try {
+            synchronized (flushLock) {
+                flush();
+                channel.close();
+                sealed = generation;
+                generation++;
+                channel = createSegment(generation);
+            }
+        } catch (IOException e) {
+            failure = e;
+            return CompletableFuture.failedFuture(e);
+        }
+        compaction = CompletableFuture.runAsync(() -> {
+            try {
+                compactUpTo(sealed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, compactor);
+        return compaction;
+    }
+
+    /**
+     * Сброс оставшихся записей и закрытие журнала
+     *
+     * Список отключается от журнала; идущее сжатие дожидается завершения.
+     *
+     * @throws IOException при ошибке записи
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        list.setJournal(null);
+        flusher.shutdown();
+        try {
+            compaction.handle((result, error) -> null).join();
+            compactor.shutdown();
+            flush();
+        } finally {
+            synchronized (flushLock) {
+                channel.close();
+            }
+        }
+        checkFailure();
+    }
+
+    // Запись изменений (вызывается списком)
+
+    /**
+     * Запись операции с необязательными индексом и значением
+     *
+     * @param op код операции
+     * @param index индекс (для ADD, REMOVE, SET, TRUNCATE)
+     * @param value значение (для операций вставки, замены и удаления по значению)
+     */
+    void record(byte op, int index, T value) {
+        boolean full;
+        synchronized (bufferLock) {
+            int start = beginFrame(op);
+            if (op == ADD || op == REMOVE || op == SET || op == TRUNCATE) {
+                ensure(Integer.BYTES);
+                pending.putInt(index);
+            }
+            if (op == ADD_FIRST || op == ADD_LAST || op == ADD || op == SET
+                    || op == REMOVE_VALUE || op == REMOVE_LAST_VALUE) {
+                putValue(value);
+            }
+            endFrame(start);
+            full = pending.position() >= maxBatchBytes;
+        }
+        afterRecord(full);
+    }
+
+    /**
+     * Запись вставки цепочки узлов одной записью
+     *
+     * @param index позиция первого узла цепочки
+     * @param count количество узлов
+     * @param first первый узел цепочки
+     */
+    void recordChain(int index, int count, Node<T> first) {
+        boolean full;
+        synchronized (bufferLock) {
+            int start = beginFrame(ADD_ALL);
+            ensure(2 * Integer.BYTES);
+            pending.putInt(index);
+            pending.putInt(count);
+            Node<T> current = first;
+            for (int i = 0; i < count; i++) {
+                putValue(current.data);
+                current = current.next;
+            }
+            endFrame(start);
+            full = pending.position() >= maxBatchBytes;
+        }
+        afterRecord(full);
+    }
+
+    private void afterRecord(boolean full) {
+        if (failure != null) {
+            throw new UncheckedIOException("Журнал изменений недоступен", failure);
+        }
+        if (full && !closed) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private int beginFrame(byte op) {
+        ensure(FRAME_HEADER_SIZE + 1);
+        int start = pending.position();
+        pending.position(start + FRAME_HEADER_SIZE);
+        pending.put(op);
+        return start;
+    }
+
+    private void endFrame(int start) {
+        int bodyStart = start + FRAME_HEADER_SIZE;
+        int length = pending.position() - bodyStart;
+        crc.reset();
+        crc.update(pending.array(), bodyStart, length);
+        pending.putInt(start, length);
+        pending.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private void putValue(T value) {
+        if (value == null) {
+            ensure(Integer.BYTES);
+            pending.putInt(NULL_LENGTH);
+            return;
+        }
+        int length = codec.encodedSize(value);
+        ensure(Integer.BYTES + length);
+        pending.putInt(length);
+        codec.encode(value, pending);
+    }
+
+    /**
+     * Расширение буфера записей при нехватке места
+     */
+    private void ensure(int bytes) {
+        if (pending.remaining() < bytes) {
+            int capacity = Math.max(pending.capacity() * 2, pending.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+
+    // Сброс на диск
+
+    /**
+     * Запись накопленной пачки в сегмент и fsync
+     *
+     * Пока пачка пишется, новые записи копятся во втором буфере.
+     */
+    private void flush() throws IOException {
+        synchronized (flushLock) {
+            synchronized (bufferLock) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+            }
+            writing.flip();
+            while (writing.hasRemaining()) {
+                channel.write(writing);
+            }
+            channel.force(false);
+            writing.clear();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private FileChannel createSegment(long segment) throws IOException {
+        FileChannel created = FileChannel.open(journalPath(directory, segment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            created.write(header);
+        }
+        created.force(false);
+        return created;
+    }
+
+    // Сжатие
+
+    /**
+     * Сворачивание снимка и сегментов до sealed включительно в новый снимок
+     */
+    private void compactUpTo(long sealed) throws IOException {
+        long base = latestSnapshot(directory);
+        DoublyLinkedList<T> rebuilt = (base > 0)
+                ? Snapshot.load(snapshotPath(directory, base), codec)
+                : new DoublyLinkedList<>();
+        for (long segment : journalGenerations(directory)) {
+            if (segment > base && segment <= sealed) {
+                replay(journalPath(directory, segment), rebuilt, codec, false);
+            }
+        }
+
+        // Снимок пишется во временный файл и переименовывается атомарно
+        Snapshot.save(rebuilt, snapshotPath(directory, sealed), codec);
+
+        // Новый снимок на месте: старые файлы больше не нужны для восстановления
+        for (long snapshot : generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (snapshot < sealed) {
+                Files.deleteIfExists(snapshotPath(directory, snapshot));
+            }
+        }
+        for (long segment : journalGenerations(directory)) {
+            if (segment <= sealed) {
+                Files.deleteIfExists(journalPath(directory, segment));
+            }
+        }
+    }
+
+    // Воспроизведение
+
+    /**
+     * Применение записей сегмента к списку
+     *
+     * Чтение останавливается на первой неполной записи или записи
+     * с неверной контрольной суммой (оборванной при сбое).
+     *
+     * @param repair обрезать ли сегмент по последней целой записи
+     */
+    private static <T> void replay(Path path, DoublyLinkedList<T> list, SnapshotCodec<T> codec,
+                                   boolean repair) throws IOException {
+        long size = Files.size(path);
+        long valid = 0;
+        if (size >= FILE_HEADER_SIZE) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Файл не является журналом списка: " + path);
+                }
+                valid = FILE_HEADER_SIZE;
+                CRC32 crc = new CRC32();
+                while (true) {
+                    byte[] body;
+                    int checksum;
+                    try {
+                        int length = in.readInt();
+                        checksum = in.readInt();
+                        if (length <= 0 || length > size - valid - FRAME_HEADER_SIZE) {
+                            break;
+                        }
+                        body = new byte[length];
+                        in.readFully(body);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    crc.reset();
+                    crc.update(body, 0, body.length);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    apply(list, ByteBuffer.wrap(body), codec);
+                    valid += FRAME_HEADER_SIZE + body.length;
+                }
+            }
+        }
+        if (repair && valid < size) {
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                file.truncate(valid);
+                file.force(false);
+            }
+        }
+    }
+
+    /**
+     * Применение одной записи к списку
+     */
+    private static <T> void apply(DoublyLinkedList<T> list, ByteBuffer body, SnapshotCodec<T> codec)
+            throws IOException {
+        byte op = body.get();
+        switch (op) {
+            case ADD_FIRST:
+                list.addFirst(readValue(body, codec));
+                break;
+            case ADD_LAST:
+                list.addLast(readValue(body, codec));
+                break;
+            case ADD: {
+                int index = body.getInt();
+                list.add(index, readValue(body, codec));
+                break;
+            }
+            case REMOVE_FIRST:
+                list.removeFirst();
+                break;
+            case REMOVE_LAST:
+                list.removeLast();
+                break;
+            case REMOVE:
+                list.remove(body.getInt());
+                break;
+            case REMOVE_VALUE:
+                list.removeFirstOccurrence(readValue(body, codec));
+                break;
+            case REMOVE_LAST_VALUE:
+                list.removeLastOccurrence(readValue(body, codec));
+                break;
+            case SET: {
+                int index = body.getInt();
+                list.set(index, readValue(body, codec));
+                break;
+            }
+            case CLEAR:
+                list.clear();
+                break;
+            case TRUNCATE:
+                list.split(body.getInt());
+                break;
+            case ADD_ALL: {
+                int index = body.getInt();
+                int count = body.getInt();
+                List<T> values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    values.add(readValue(body, codec));
+                }
+                list.addAll(index, values);
+                break;
+            }
+            default:
+                throw new IOException("Неизвестная операция журнала: " + op);
+        }
+    }
+
+    private static <T> T readValue(ByteBuffer body, SnapshotCodec<T> codec) {
+        int length = body.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        int start = body.position();
+        T value = codec.decode(body, length);
+        body.position(start + length);
+        return value;
+    }
+
+    // Файлы каталога
+
+    private static Path snapshotPath(Path directory, long generation) {
+        return directory.resolve(String.format("%s%016d%s", SNAPSHOT_PREFIX, generation, SNAPSHOT_SUFFIX));
+    }
+
+    private static Path journalPath(Path directory, long generation) {
+        return directory.resolve(String.format("%s%016d%s", JOURNAL_PREFIX, generation, JOURNAL_SUFFIX));
+    }
+
+    /**
+     * Номер последнего снимка или 0, если снимков нет
+     */
+    private static long latestSnapshot(Path directory) throws IOException {
+        List<Long> snapshots = generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        return snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+    }
+
+    private static List<Long> journalGenerations(Path directory) throws IOException {
+        return generations(directory, JOURNAL_PREFIX, JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Номера файлов вида prefix + номер + suffix по возрастанию
+     */
+    private static List<Long> generations(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    result.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Посторонний файл с похожим именем
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Удаление недописанных снимков, оставшихся после сбоя во время сжатия
+     */
+    private static void deleteTemporaryFiles(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Snapshot.TEMP_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
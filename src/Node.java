@@ -7,6 +7,7 @@ public class Node<T> {
     T data;           // Данные узла
     Node<T> next;     // Ссылка на следующий узел
     Node<T> prev;     // Ссылка на предыдущий узел
+    Extra<T> extra;   // Состояние индекса позиций и снимков или null, если они не касались узла
     
     /**
      * Конструктор узла
@@ -18,4 +19,88 @@ public class Node<T> {
         this.next = null;
         this.prev = null;
     }
+    
+    /**
+     * Вершина индекса позиций
+     * 
+     * @return вершина или null, если индекс выключен
+     */
+    PositionIndex.Entry<T> entry() {
+        Extra<T> e = extra;
+        return e == null ? null : e.entry;
+    }
+    
+    /**
+     * Установка или сброс (null) вершины индекса позиций
+     */
+    void setEntry(PositionIndex.Entry<T> entry) {
+        if (entry != null) {
+            extra().entry = entry;
+        } else if (extra != null) {
+            extra.entry = null;
+            if (extra.stamp == 0 && extra.history == null) {
+                // Пустое состояние равнозначно его отсутствию и для читателей снимков
+                extra = null;
+            }
+        }
+    }
+    
+    /**
+     * Версия, с которой действуют текущие data и next
+     * 
+     * @return версия или 0, если узел не менялся при живых снимках
+     */
+    long stamp() {
+        Extra<T> e = extra;
+        return e == null ? 0 : e.stamp;
+    }
+    
+    /**
+     * Дополнительное состояние узла с созданием при первом обращении
+     * 
+     * Новый объект публикуется без барьера: его поля по умолчанию
+     * означают то же, что и его отсутствие.
+     */
+    Extra<T> extra() {
+        Extra<T> e = extra;
+        if (e == null) {
+            e = new Extra<>();
+            extra = e;
+        }
+        return e;
+    }
+    
+    /**
+     * Состояние узла, нужное только индексу позиций и снимкам
+     * 
+     * Вынесено из узла, чтобы список без этих возможностей платил
+     * за них одной ссылкой на узел, а не тремя полями.
+     * 
+     * @param <T> тип данных, хранящихся в узле
+     */
+    static final class Extra<T> {
+        PositionIndex.Entry<T> entry;  // Вершина индекса позиций (null, если индекс выключен)
+        long stamp;                    // Версия, с которой действуют текущие data и next
+        Revision<T> history;           // Прежние data и next для живых снимков (новые первыми)
+    }
+    
+    /**
+     * Прежнее состояние узла, видимое снимкам версий от stamp
+     * и до версии следующей (более новой) записи
+     * 
+     * @param <T> тип данных, хранящихся в узле
+     */
+    static final class Revision<T> {
+        final long stamp;    // Версия, с которой действовало это состояние
+        final T data;        // Данные узла
+        final Node<T> next;  // Следующий узел
+        Revision<T> older;   // Более старое состояние или null
+        
+        Revision(long stamp, T data, Node<T> next, Revision<T> older) {
+            this.stamp = stamp;
+            this.data = data;
+            this.next = next;
+            this.older = older;
+        }
+    }
 }
@@ -0,0 +1,143 @@
+/**
+ * Ограниченный пул узлов для повторного использования
+ * 
+ * Освобожденные узлы хранятся в цепочке через поле next и выдаются
+ * при следующих вставках вместо создания новых объектов. Пул считает
+ * попадания и промахи, чтобы по ним можно было подобрать емкость.
+ * 
+ * @param <T> тип данных, хранящихся в узлах
+ */
+public class NodePool<T> {
+    private final int capacity;  // Максимальное количество узлов в пуле
+    private Node<T> free;        // Голова цепочки свободных узлов
+    private int pooled;          // Текущее количество узлов в пуле
+    private long hits;           // Выдачи из пула
+    private long misses;         // Выдачи с созданием нового узла
+    
+    /**
+     * Конструктор пула
+     * 
+     * @param capacity максимальное количество хранимых узлов
+     * @throws IllegalArgumentException если емкость отрицательна
+     */
+    public NodePool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Емкость пула: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Получение узла из пула или создание нового
+     * 
+     * @param data данные для узла
+     * @return узел с пустыми ссылками prev/next
+     */
+    Node<T> obtain(T data) {
+        Node<T> node = free;
+        if (node == null) {
+            misses++;
+            return new Node<>(data);
+        }
+        free = node.next;
+        pooled--;
+        hits++;
+        node.next = null;
+        node.data = data;
+        node.extra = null;
+        return node;
+    }
+    
+    /**
+     * Возврат одного узла в пул
+     * 
+     * Если пул заполнен, узел остается сборщику мусора.
+     * 
+     * @param node исключенный из списка узел
+     */
+    void release(Node<T> node) {
+        if (pooled >= capacity) {
+            return;
+        }
+        node.data = null;
+        node.prev = null;
+        node.extra = null;
+        node.next = free;
+        free = node;
+        pooled++;
+    }
+    
+    /**
+     * Возврат цепочки узлов в пул одной операцией
+     * 
+     * В пул переходит столько узлов от начала цепочки, сколько
+     * в нем свободного места; остаток цепочки отсекается целиком.
+     * 
+     * @param first первый узел цепочки, связанной через next
+     */
+    void releaseChain(Node<T> first) {
+        int room = capacity - pooled;
+        if (first == null || room <= 0) {
+            return;
+        }
+        
+        Node<T> last = first;
+        int taken = 1;
+        last.data = null;
+        last.prev = null;
+        last.extra = null;
+        while (taken < room && last.next != null) {
+            last = last.next;
+            last.data = null;
+            last.prev = null;
+            last.extra = null;
+            taken++;
+        }
+        
+        last.next = free;
+        free = first;
+        pooled += taken;
+    }
+    
+    /**
+     * Получение емкости пула
+     * 
+     * @return максимальное количество хранимых узлов
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Получение количества узлов в пуле
+     * 
+     * @return количество свободных узлов, готовых к выдаче
+     */
+    public int getPooled() {
+        return pooled;
+    }
+    
+    /**
+     * Получение количества попаданий
+     * 
+     * @return сколько раз узел был выдан из пула
+     */
+    public long getHits() {
+        return hits;
+    }
+    
+    /**
+     * Получение количества промахов
+     * 
+     * @return сколько раз пришлось создать новый узел
+     */
+    public long getMisses() {
+        return misses;
+    }
+    
+    @Override
+    public String toString() {
+        return "NodePool[емкость=" + capacity + ", в пуле=" + pooled
+                + ", попадания=" + hits + ", промахи=" + misses + "]";
+    }
+}
@@ -0,0 +1,597 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Двусвязный список во внешней (off-heap) памяти
+ * 
+ * Ссылки prev/next и данные фиксированной длины хранятся в прямых
+ * буферах {@link ByteBuffer}, разбитых на блоки по несколько тысяч
+ * слотов. Рост списка добавляет новый блок без копирования старых,
+ * а количество объектов в куче не зависит от числа элементов.
+ * Значения кодируются подключаемым {@link RecordCodec}.
+ * 
+ * Метод {@link #close()} освобождает всю внешнюю память одним вызовом,
+ * после чего список использовать нельзя.
+ * 
+ * @param <T> тип данных, хранящихся в списке
+ */
+public class OffHeapDoublyLinkedList<T> implements Iterable<T>, AutoCloseable {
+    private static final int NIL = -1;                 // Отсутствие ссылки
+    private static final int PREV_OFFSET = 0;          // Смещение ссылки prev в слоте
+    private static final int NEXT_OFFSET = 4;          // Смещение ссылки next в слоте
+    private static final int DATA_OFFSET = 8;          // Смещение данных в слоте
+    private static final int TARGET_CHUNK_BYTES = 1 << 20;  // Желаемый размер блока
+    
+    private final RecordCodec<T> codec;  // Кодек значений
+    private final int recordSize;        // Размер данных в слоте
+    private final int stride;            // Полный размер слота
+    private final int chunkShift;        // log2 количества слотов в блоке
+    private final int chunkMask;         // Маска номера слота внутри блока
+    private final ByteBuffer probe;      // Буфер для кодирования искомых значений
+    
+    private ByteBuffer[] chunks;  // Блоки внешней памяти
+    private int chunkCount;       // Количество выделенных блоков
+    private int head;             // Слот головы списка
+    private int tail;             // Слот хвоста списка
+    private int size;             // Размер списка
+    private int used;             // Количество когда-либо занятых слотов
+    private int freeHead;         // Голова списка свободных слотов
+    private int modCount;         // Счетчик структурных изменений
+    private boolean closed;       // Признак освобожденной памяти
+    
+    /**
+     * Конструктор пустого списка
+     * 
+     * @param codec кодек значений фиксированной длины
+     * @throws IllegalArgumentException если размер записи не положителен
+     */
+    public OffHeapDoublyLinkedList(RecordCodec<T> codec) {
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.recordSize = codec.recordSize();
+        if (recordSize <= 0) {
+            throw new IllegalArgumentException("Размер записи: " + recordSize);
+        }
+        this.stride = DATA_OFFSET + recordSize;
+        
+        int shift = 4;
+        while (shift < 30 && ((long) stride << (shift + 1)) <= TARGET_CHUNK_BYTES) {
+            shift++;
+        }
+        this.chunkShift = shift;
+        this.chunkMask = (1 << shift) - 1;
+        this.probe = ByteBuffer.allocate(recordSize).order(ByteOrder.nativeOrder());
+        
+        this.chunks = new ByteBuffer[4];
+        this.chunkCount = 0;
+        this.head = NIL;
+        this.tail = NIL;
+        this.size = 0;
+        this.used = 0;
+        this.freeHead = NIL;
+    }
+    
+    /**
+     * Добавление элемента в начало списка
+     * 
+     * @param data данные для добавления
+     */
+    public void addFirst(T data) {
+        int slot = allocate(data);
+        
+        if (head == NIL) {
+            head = tail = slot;
+        } else {
+            setNext(slot, head);
+            setPrev(head, slot);
+            head = slot;
+        }
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Добавление элемента в конец списка
+     * 
+     * @param data данные для добавления
+     */
+    public void addLast(T data) {
+        int slot = allocate(data);
+        
+        if (tail == NIL) {
+            head = tail = slot;
+        } else {
+            setPrev(slot, tail);
+            setNext(tail, slot);
+            tail = slot;
+        }
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Добавление элемента по индексу
+     * 
+     * @param index позиция для вставки
+     * @param data данные для добавления
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public void add(int index, T data) {
+        ensureOpen();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        
+        if (index == 0) {
+            addFirst(data);
+            return;
+        }
+        
+        if (index == size) {
+            addLast(data);
+            return;
+        }
+        
+        int successor = getSlotAt(index);
+        int slot = allocate(data);
+        int predecessor = prevOf(successor);
+        
+        setNext(slot, successor);
+        setPrev(slot, predecessor);
+        setNext(predecessor, slot);
+        setPrev(successor, slot);
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Удаление первого элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    public T removeFirst() {
+        ensureOpen();
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return unlink(head);
+    }
+    
+    /**
+     * Удаление последнего элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    public T removeLast() {
+        ensureOpen();
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return unlink(tail);
+    }
+    
+    /**
+     * Удаление элемента по индексу
+     * 
+     * @param index позиция элемента для удаления
+     * @return удаленный элемент
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public T remove(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        return unlink(getSlotAt(index));
+    }
+    
+    /**
+     * Удаление первого вхождения элемента по значению
+     * 
+     * @param data значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    public boolean removeByValue(T data) {
+        int slot = findSlot(data);
+        if (slot == NIL) {
+            return false;
+        }
+        unlink(slot);
+        return true;
+    }
+    
+    /**
+     * Получение элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @return данные элемента
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public T get(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        return read(getSlotAt(index));
+    }
+    
+    /**
+     * Замена элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @param data новое значение
+     * @return прежнее значение
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public T set(int index, T data) {
+        ensureOpen();
+        Objects.requireNonNull(data, "Значение не может быть null");
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        int slot = getSlotAt(index);
+        T old = read(slot);
+        codec.encode(data, chunkOf(slot), offsetOf(slot) + DATA_OFFSET);
+        return old;
+    }
+    
+    /**
+     * Проверка наличия элемента в списке
+     * 
+     * @param data значение для поиска
+     * @return true если элемент найден, false иначе
+     */
+    public boolean contains(T data) {
+        return indexOf(data) != -1;
+    }
+    
+    /**
+     * Поиск индекса первого вхождения элемента
+     * 
+     * Записи сравниваются побайтно без декодирования.
+     * 
+     * @param data значение для поиска
+     * @return индекс элемента или -1 если не найден
+     */
+    public int indexOf(T data) {
+        ensureOpen();
+        if (data == null) {
+            return -1;
+        }
+        codec.encode(data, probe, 0);
+        
+        int index = 0;
+        for (int slot = head; slot != NIL; slot = nextOf(slot)) {
+            if (matchesProbe(slot)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+    
+    /**
+     * Получение размера списка
+     * 
+     * @return количество элементов в списке
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Проверка пустоты списка
+     * 
+     * @return true если список пуст, false иначе
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Очистка списка
+     * 
+     * Выделенные блоки сохраняются для повторного использования.
+     */
+    public void clear() {
+        ensureOpen();
+        head = tail = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+        modCount++;
+    }
+    
+    /**
+     * Объем выделенной внешней памяти
+     * 
+     * @return количество байт во всех блоках
+     */
+    public long offHeapBytes() {
+        return (long) chunkCount * (stride << chunkShift);
+    }
+    
+    /**
+     * Освобождение всей внешней памяти
+     * 
+     * Повторный вызов ничего не делает. После закрытия любые
+     * операции, кроме size() и isEmpty(), бросают IllegalStateException.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < chunkCount; i++) {
+            DirectMemory.free(chunks[i]);
+            chunks[i] = null;
+        }
+        chunks = null;
+        chunkCount = 0;
+        head = tail = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+        modCount++;
+    }
+    
+    /**
+     * Итератор от головы к хвосту
+     * 
+     * @return итератор, отказывающий при изменении списка
+     */
+    @Override
+    public Iterator<T> iterator() {
+        ensureOpen();
+        return new Iterator<T>() {
+            private int slot = head;
+            private final int expectedModCount = modCount;
+            
+            @Override
+            public boolean hasNext() {
+                return slot != NIL;
+            }
+            
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (slot == NIL) {
+                    throw new NoSuchElementException();
+                }
+                T value = read(slot);
+                slot = nextOf(slot);
+                return value;
+            }
+        };
+    }
+    
+    /**
+     * Печать списка от начала к концу
+     */
+    public void printForward() {
+        ensureOpen();
+        if (isEmpty()) {
+            System.out.println("Список пуст");
+            return;
+        }
+        
+        StringBuilder sb = new StringBuilder("Прямой обход: ");
+        for (int slot = head; slot != NIL; slot = nextOf(slot)) {
+            sb.append(read(slot));
+            if (nextOf(slot) != NIL) {
+                sb.append(" <-> ");
+            }
+        }
+        System.out.println(sb);
+    }
+    
+    /**
+     * Печать списка от конца к началу
+     */
+    public void printBackward() {
+        ensureOpen();
+        if (isEmpty()) {
+            System.out.println("Список пуст");
+            return;
+        }
+        
+        StringBuilder sb = new StringBuilder("Обратный обход: ");
+        for (int slot = tail; slot != NIL; slot = prevOf(slot)) {
+            sb.append(read(slot));
+            if (prevOf(slot) != NIL) {
+                sb.append(" <-> ");
+            }
+        }
+        System.out.println(sb);
+    }
+    
+    @Override
+    public String toString() {
+        if (closed) {
+            return "[закрыт]";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int slot = head; slot != NIL; slot = nextOf(slot)) {
+            sb.append(read(slot));
+            if (nextOf(slot) != NIL) {
+                sb.append(", ");
+            }
+        }
+        return sb.append(']').toString();
+    }
+    
+    /**
+     * Выделение слота и запись в него значения
+     * 
+     * @return номер слота с пустыми ссылками
+     */
+    private int allocate(T data) {
+        ensureOpen();
+        Objects.requireNonNull(data, "Значение не может быть null");
+        
+        int slot;
+        if (freeHead != NIL) {
+            slot = freeHead;
+            freeHead = nextOf(slot);
+        } else {
+            if ((used >>> chunkShift) == chunkCount) {
+                addChunk();
+            }
+            slot = used++;
+        }
+        
+        ByteBuffer chunk = chunkOf(slot);
+        int offset = offsetOf(slot);
+        chunk.putInt(offset + PREV_OFFSET, NIL);
+        chunk.putInt(offset + NEXT_OFFSET, NIL);
+        codec.encode(data, chunk, offset + DATA_OFFSET);
+        return slot;
+    }
+    
+    /**
+     * Выделение очередного блока внешней памяти
+     */
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        chunks[chunkCount++] = ByteBuffer.allocateDirect(stride << chunkShift)
+                .order(ByteOrder.nativeOrder());
+    }
+    
+    /**
+     * Исключение слота из цепочки и возврат его в список свободных
+     * 
+     * @return значение исключенного элемента
+     */
+    private T unlink(int slot) {
+        T data = read(slot);
+        int p = prevOf(slot);
+        int n = nextOf(slot);
+        
+        if (p == NIL) {
+            head = n;
+        } else {
+            setNext(p, n);
+        }
+        
+        if (n == NIL) {
+            tail = p;
+        } else {
+            setPrev(n, p);
+        }
+        
+        setNext(slot, freeHead);
+        freeHead = slot;
+        size--;
+        modCount++;
+        return data;
+    }
+    
+    /**
+     * Поиск слота первого вхождения значения
+     * 
+     * @return слот или NIL, если значение не найдено
+     */
+    private int findSlot(T data) {
+        ensureOpen();
+        if (data == null) {
+            return NIL;
+        }
+        codec.encode(data, probe, 0);
+        for (int slot = head; slot != NIL; slot = nextOf(slot)) {
+            if (matchesProbe(slot)) {
+                return slot;
+            }
+        }
+        return NIL;
+    }
+    
+    /**
+     * Побайтное сравнение записи слота с закодированным искомым значением
+     */
+    private boolean matchesProbe(int slot) {
+        ByteBuffer chunk = chunkOf(slot);
+        int offset = offsetOf(slot) + DATA_OFFSET;
+        int i = 0;
+        for (; i + Long.BYTES <= recordSize; i += Long.BYTES) {
+            if (chunk.getLong(offset + i) != probe.getLong(i)) {
+                return false;
+            }
+        }
+        for (; i < recordSize; i++) {
+            if (chunk.get(offset + i) != probe.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Вспомогательный метод для получения слота по индексу
+     * 
+     * @param index позиция элемента
+     * @return слот элемента на указанной позиции
+     */
+    private int getSlotAt(int index) {
+        int slot;
+        
+        // Оптимизация: начинаем с ближайшего конца
+        if (index < size / 2) {
+            slot = head;
+            for (int i = 0; i < index; i++) {
+                slot = nextOf(slot);
+            }
+        } else {
+            slot = tail;
+            for (int i = size - 1; i > index; i--) {
+                slot = prevOf(slot);
+            }
+        }
+        
+        return slot;
+    }
+    
+    private T read(int slot) {
+        return codec.decode(chunkOf(slot), offsetOf(slot) + DATA_OFFSET);
+    }
+    
+    private int prevOf(int slot) {
+        return chunkOf(slot).getInt(offsetOf(slot) + PREV_OFFSET);
+    }
+    
+    private int nextOf(int slot) {
+        return chunkOf(slot).getInt(offsetOf(slot) + NEXT_OFFSET);
+    }
+    
+    private void setPrev(int slot, int value) {
+        chunkOf(slot).putInt(offsetOf(slot) + PREV_OFFSET, value);
+    }
+    
+    private void setNext(int slot, int value) {
+        chunkOf(slot).putInt(offsetOf(slot) + NEXT_OFFSET, value);
+    }
+    
+    private ByteBuffer chunkOf(int slot) {
+        return chunks[slot >>> chunkShift];
+    }
+    
+    private int offsetOf(int slot) {
+        return (slot & chunkMask) * stride;
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Список закрыт");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Журнал операций ограниченного размера
+ *
+ * Сообщения хранятся в кольцевом буфере: при переполнении вытесняются
+ * самые старые. Буфер показывается в ListView, который создает ячейки
+ * только для видимых строк. Запись возможна из любого потока: сообщения
+ * копятся в очереди и переносятся в буфер одним обновлением интерфейса
+ * на пачку, а не по одному вызову на сообщение.
+ */
+class OperationLog {
+    private final RingBuffer buffer;
+    private final ListView<String> view;
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();  // Еще не показанные сообщения
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Создание журнала
+     *
+     * @param capacity максимальное количество хранимых сообщений
+     * @throws IllegalArgumentException если емкость не положительна
+     */
+    OperationLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Емкость журнала должна быть положительной: " + capacity);
+        }
+        buffer = new RingBuffer(capacity);
+        view = new ListView<>(buffer);
+        view.setCellFactory(listView -> {
+            ListCell<String> cell = new ListCell<>() {
+                @Override
+                protected void updateItem(String item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty ? null : item);
+                }
+            };
+            cell.setWrapText(true);
+            cell.prefWidthProperty().bind(listView.widthProperty().subtract(20));
+            return cell;
+        });
+    }
+
+    /**
+     * Получение компонента для размещения в окне
+     */
+    ListView<String> getView() {
+        return view;
+    }
+
+    /**
+     * Добавление сообщения (из любого потока)
+     *
+     * @param message текст сообщения
+     */
+    void append(String message) {
+        pending.add(message);
+        if (flushScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    /**
+     * Перенос накопленных сообщений в буфер одним изменением списка
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        List<String> batch = new ArrayList<>();
+        for (String message; (message = pending.poll()) != null; ) {
+            batch.add(message);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        buffer.appendAll(batch);
+        view.scrollTo(buffer.size() - 1);
+    }
+
+    /**
+     * Кольцевой буфер сообщений в виде наблюдаемого списка
+     */
+    private static final class RingBuffer extends ObservableListBase<String> {
+        private final String[] items;
+        private int start;  // Позиция самого старого сообщения
+        private int size;   // Количество сообщений
+
+        RingBuffer(int capacity) {
+            items = new String[capacity];
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+            }
+            return items[(start + index) % items.length];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Добавление пачки сообщений с вытеснением старых
+         *
+         * Слушатели получают одно составное изменение на всю пачку.
+         */
+        void appendAll(List<String> batch) {
+            int capacity = items.length;
+            int skip = Math.max(0, batch.size() - capacity);  // Сообщения, вытесняемые сразу же
+            int added = batch.size() - skip;
+            int evicted = Math.max(0, size + added - capacity);
+
+            beginChange();
+            if (evicted > 0) {
+                List<String> removed = new ArrayList<>(evicted);
+                for (int i = 0; i < evicted; i++) {
+                    removed.add(items[start]);
+                    items[start] = null;
+                    start = (start + 1) % capacity;
+                }
+                size -= evicted;
+                nextRemove(0, removed);
+            }
+            int from = size;
+            for (int i = skip; i < batch.size(); i++) {
+                items[(start + size) % capacity] = batch.get(i);
+                size++;
+            }
+            nextAdd(from, size);
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Индекс позиций для доступа по номеру за O(log n)
+ * 
+ * Над цепочкой узлов строится декартово дерево (treap) с неявным
+ * ключом: порядок обхода дерева совпадает с порядком списка, а каждая
+ * вершина хранит количество вершин в своем поддереве. Это позволяет
+ * находить узел по индексу и индекс узла за ожидаемое O(log n).
+ * 
+ * Вершина дерева связана с узлом списка в обе стороны через
+ * {@code Node.entry()}, поэтому вставка рядом с известным узлом
+ * и удаление узла не требуют поиска по индексу.
+ * 
+ * @param <T> тип данных, хранящихся в узлах
+ */
+class PositionIndex<T> {
+    private Entry<T> root;  // Корень дерева
+    private int seed;       // Состояние генератора приоритетов
+    
+    /**
+     * Построение индекса по цепочке узлов за O(n)
+     * 
+     * @param head голова списка
+     */
+    PositionIndex(Node<T> head) {
+        this.seed = (int) System.nanoTime() | 1;
+        this.root = build(head);
+    }
+    
+    private PositionIndex(Entry<T> root, int seed) {
+        this.root = root;
+        this.seed = seed;
+    }
+    
+    /**
+     * Получение узла по индексу
+     * 
+     * @param index позиция узла (должна быть в пределах списка)
+     * @return узел на указанной позиции
+     */
+    Node<T> nodeAt(int index) {
+        Entry<T> e = root;
+        while (true) {
+            int leftCount = count(e.left);
+            if (index < leftCount) {
+                e = e.left;
+            } else if (index == leftCount) {
+                return e.node;
+            } else {
+                index -= leftCount + 1;
+                e = e.right;
+            }
+        }
+    }
+    
+    /**
+     * Получение индекса узла
+     * 
+     * @param node узел, присутствующий в списке
+     * @return позиция узла
+     */
+    int rank(Node<T> node) {
+        Entry<T> e = node.entry();
+        int rank = count(e.left);
+        while (e.parent != null) {
+            if (e == e.parent.right) {
+                rank += count(e.parent.left) + 1;
+            }
+            e = e.parent;
+        }
+        return rank;
+    }
+    
+    /**
+     * Регистрация узла, только что связанного в цепочку
+     * 
+     * Вершина подвешивается к соседу: правым потомком предыдущего узла,
+     * если это место свободно, иначе левым потомком следующего узла
+     * (в этом случае он самый левый в правом поддереве предыдущего).
+     * 
+     * @param node новый узел с уже установленными prev/next
+     */
+    void insert(Node<T> node) {
+        Entry<T> e = new Entry<>(node, nextPriority());
+        node.setEntry(e);
+        
+        if (root == null) {
+            root = e;
+            return;
+        }
+        
+        Entry<T> parent;
+        if (node.prev != null && node.prev.entry().right == null) {
+            parent = node.prev.entry();
+            parent.right = e;
+        } else {
+            parent = node.next.entry();
+            parent.left = e;
+        }
+        e.parent = parent;
+        
+        for (Entry<T> p = parent; p != null; p = p.parent) {
+            p.count++;
+        }
+        
+        while (e.parent != null && e.priority > e.parent.priority) {
+            rotateUp(e);
+        }
+    }
+    
+    /**
+     * Удаление узла из индекса
+     * 
+     * Вершина опускается поворотами, пока у нее не останется не более
+     * одного потомка, после чего заменяется этим потомком.
+     * 
+     * @param node узел, исключаемый из списка
+     */
+    void remove(Node<T> node) {
+        Entry<T> e = node.entry();
+        node.setEntry(null);
+        
+        while (e.left != null && e.right != null) {
+            rotateUp(e.left.priority > e.right.priority ? e.left : e.right);
+        }
+        
+        Entry<T> child = (e.left != null) ? e.left : e.right;
+        Entry<T> parent = e.parent;
+        replaceChild(parent, e, child);
+        
+        for (Entry<T> p = parent; p != null; p = p.parent) {
+            p.count--;
+        }
+        e.left = e.right = e.parent = null;
+    }
+    
+    /**
+     * Вставка целой цепочки узлов по индексу за ожидаемое O(log n)
+     * 
+     * Дерево разрезается по индексу, и дерево цепочки вклеивается
+     * между частями.
+     * 
+     * @param index позиция первого узла цепочки в списке
+     * @param chain индекс, построенный по вставляемой цепочке
+     */
+    void insertAll(int index, PositionIndex<T> chain) {
+        Entry<T>[] parts = split(root, index);
+        root = detachRoot(merge(merge(parts[0], chain.root), parts[1]));
+        chain.root = null;
+    }
+    
+    /**
+     * Отделение узлов начиная с индекса в новый индекс за ожидаемое O(log n)
+     * 
+     * @param index позиция первого отделяемого узла
+     * @return индекс отделенной части
+     */
+    PositionIndex<T> splitOff(int index) {
+        Entry<T>[] parts = split(root, index);
+        root = detachRoot(parts[0]);
+        return new PositionIndex<>(detachRoot(parts[1]), nextPriority() | 1);
+    }
+    
+    /**
+     * Очистка индекса
+     * 
+     * Ссылки узлов на вершины не сбрасываются: узлы очищенного списка
+     * либо недостижимы, либо очищаются пулом.
+     */
+    void clear() {
+        root = null;
+    }
+    
+    /**
+     * Сброс ссылок на вершины у всех узлов цепочки
+     * 
+     * @param head голова списка
+     */
+    static <T> void detach(Node<T> head) {
+        for (Node<T> current = head; current != null; current = current.next) {
+            current.setEntry(null);
+        }
+    }
+    
+    /**
+     * Построение декартова дерева по последовательности узлов
+     * 
+     * Используется стек правой ветви: каждая новая вершина забирает
+     * в левое поддерево вершины с меньшим приоритетом. Размеры
+     * поддеревьев досчитываются при снятии вершин со стека.
+     */
+    private Entry<T> build(Node<T> head) {
+        Deque<Entry<T>> rightSpine = new ArrayDeque<>();
+        for (Node<T> current = head; current != null; current = current.next) {
+            Entry<T> e = new Entry<>(current, nextPriority());
+            current.setEntry(e);
+            
+            Entry<T> last = null;
+            while (!rightSpine.isEmpty() && rightSpine.peek().priority < e.priority) {
+                last = rightSpine.pop();
+                last.count = 1 + count(last.left) + count(last.right);
+            }
+            e.left = last;
+            if (last != null) {
+                last.parent = e;
+            }
+            if (!rightSpine.isEmpty()) {
+                rightSpine.peek().right = e;
+                e.parent = rightSpine.peek();
+            }
+            rightSpine.push(e);
+        }
+        
+        Entry<T> top = null;
+        while (!rightSpine.isEmpty()) {
+            top = rightSpine.pop();
+            top.count = 1 + count(top.left) + count(top.right);
+        }
+        return top;
+    }
+    
+    /**
+     * Слияние двух деревьев, где все вершины a предшествуют вершинам b
+     */
+    private static <T> Entry<T> merge(Entry<T> a, Entry<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.right.parent = a;
+            a.count = 1 + count(a.left) + count(a.right);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.left.parent = b;
+        b.count = 1 + count(b.left) + count(b.right);
+        return b;
+    }
+    
+    /**
+     * Разрезание дерева на первые k вершин и остальные
+     * 
+     * @return массив из двух корней (любой может быть null)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] split(Entry<T> e, int k) {
+        Entry<T>[] parts = (Entry<T>[]) new Entry<?>[2];
+        if (e == null) {
+            return parts;
+        }
+        if (count(e.left) < k) {
+            Entry<T>[] rest = split(e.right, k - count(e.left) - 1);
+            e.right = rest[0];
+            if (e.right != null) {
+                e.right.parent = e;
+            }
+            e.count = 1 + count(e.left) + count(e.right);
+            parts[0] = e;
+            parts[1] = rest[1];
+        } else {
+            Entry<T>[] rest = split(e.left, k);
+            e.left = rest[1];
+            if (e.left != null) {
+                e.left.parent = e;
+            }
+            e.count = 1 + count(e.left) + count(e.right);
+            parts[0] = rest[0];
+            parts[1] = e;
+        }
+        return parts;
+    }
+    
+    private static <T> Entry<T> detachRoot(Entry<T> e) {
+        if (e != null) {
+            e.parent = null;
+        }
+        return e;
+    }
+    
+    /**
+     * Поворот, поднимающий вершину на место родителя
+     */
+    private void rotateUp(Entry<T> e) {
+        Entry<T> parent = e.parent;
+        Entry<T> grandparent = parent.parent;
+        
+        if (e == parent.left) {
+            parent.left = e.right;
+            if (e.right != null) {
+                e.right.parent = parent;
+            }
+            e.right = parent;
+        } else {
+            parent.right = e.left;
+            if (e.left != null) {
+                e.left.parent = parent;
+            }
+            e.left = parent;
+        }
+        parent.parent = e;
+        replaceChild(grandparent, parent, e);
+        
+        e.count = parent.count;
+        parent.count = 1 + count(parent.left) + count(parent.right);
+    }
+    
+    /**
+     * Замена потомка у родителя (или корня, если родителя нет)
+     */
+    private void replaceChild(Entry<T> parent, Entry<T> oldChild, Entry<T> newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+        if (newChild != null) {
+            newChild.parent = parent;
+        }
+    }
+    
+    /**
+     * Следующий псевдослучайный приоритет (xorshift)
+     */
+    private int nextPriority() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        return x;
+    }
+    
+    private static int count(Entry<?> e) {
+        return e == null ? 0 : e.count;
+    }
+    
+    /**
+     * Вершина дерева позиций
+     */
+    static final class Entry<T> {
+        final Node<T> node;  // Узел списка
+        final int priority;  // Приоритет вершины в куче
+        Entry<T> left;       // Левое поддерево (предшествующие узлы)
+        Entry<T> right;      // Правое поддерево (последующие узлы)
+        Entry<T> parent;     // Родительская вершина
+        int count;           // Количество вершин в поддереве
+        
+        Entry(Node<T> node, int priority) {
+            this.node = node;
+            this.priority = priority;
+            this.count = 1;
+        }
+    }
+}
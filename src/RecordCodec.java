@@ -0,0 +1,114 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Кодек записей фиксированной длины
+ * 
+ * Используется списком {@link OffHeapDoublyLinkedList} для хранения
+ * элементов во внешней памяти. Кодек должен быть каноническим:
+ * равные значения кодируются одинаковыми байтами, так как поиск
+ * сравнивает записи побайтно, не декодируя их.
+ * 
+ * @param <T> тип кодируемых значений
+ */
+public interface RecordCodec<T> {
+    
+    /**
+     * Размер одной записи
+     * 
+     * @return количество байт, занимаемых значением
+     */
+    int recordSize();
+    
+    /**
+     * Запись значения в буфер
+     * 
+     * @param value значение для записи
+     * @param buffer буфер назначения
+     * @param offset абсолютное смещение записи в буфере
+     */
+    void encode(T value, ByteBuffer buffer, int offset);
+    
+    /**
+     * Чтение значения из буфера
+     * 
+     * @param buffer исходный буфер
+     * @param offset абсолютное смещение записи в буфере
+     * @return прочитанное значение
+     */
+    T decode(ByteBuffer buffer, int offset);
+    
+    /**
+     * Кодек для Integer (4 байта)
+     * 
+     * @return кодек целых чисел
+     */
+    static RecordCodec<Integer> ofInt() {
+        return new RecordCodec<Integer>() {
+            @Override
+            public int recordSize() {
+                return Integer.BYTES;
+            }
+            
+            @Override
+            public void encode(Integer value, ByteBuffer buffer, int offset) {
+                buffer.putInt(offset, value);
+            }
+            
+            @Override
+            public Integer decode(ByteBuffer buffer, int offset) {
+                return buffer.getInt(offset);
+            }
+        };
+    }
+    
+    /**
+     * Кодек для Long (8 байт)
+     * 
+     * @return кодек длинных целых чисел
+     */
+    static RecordCodec<Long> ofLong() {
+        return new RecordCodec<Long>() {
+            @Override
+            public int recordSize() {
+                return Long.BYTES;
+            }
+            
+            @Override
+            public void encode(Long value, ByteBuffer buffer, int offset) {
+                buffer.putLong(offset, value);
+            }
+            
+            @Override
+            public Long decode(ByteBuffer buffer, int offset) {
+                return buffer.getLong(offset);
+            }
+        };
+    }
+    
+    /**
+     * Кодек для Double (8 байт)
+     * 
+     * Значение хранится как результат Double.doubleToLongBits,
+     * поэтому все NaN кодируются одинаково.
+     * 
+     * @return кодек чисел с плавающей точкой
+     */
+    static RecordCodec<Double> ofDouble() {
+        return new RecordCodec<Double>() {
+            @Override
+            public int recordSize() {
+                return Double.BYTES;
+            }
+            
+            @Override
+            public void encode(Double value, ByteBuffer buffer, int offset) {
+                buffer.putLong(offset, Double.doubleToLongBits(value));
+            }
+            
+            @Override
+            public Double decode(ByteBuffer buffer, int offset) {
+                return Double.longBitsToDouble(buffer.getLong(offset));
+            }
+        };
+    }
+}
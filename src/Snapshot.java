@@ -0,0 +1,374 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Бинарные снимки двусвязного списка
+ *
+ * Формат (little-endian):
+ * <pre>
+ * int  MAGIC ("DLLS")
+ * int  VERSION
+ * int  формат: FORMAT_INT или FORMAT_PREFIXED
+ * long количество элементов
+ * FORMAT_INT:      int на каждый элемент
+ * FORMAT_PREFIXED: int длина (NULL_LENGTH для null) и байты значения
+ * </pre>
+ *
+ * Файл читается и пишется через отображение в память окнами
+ * по WINDOW_SIZE байт, поэтому размер снимка не ограничен
+ * размером одного MappedByteBuffer. Размер файла вычисляется до
+ * записи, и окна не выходят за его конец: файл не приходится
+ * обрезать, пока отображение еще живо (на Windows это запрещено).
+ * Каждое окно снимается сразу после использования (после записи -
+ * и после сброса на диск), поэтому отображения не копятся и не
+ * мешают заменить или удалить файл.
+ *
+ * Снимок пишется во временный файл рядом с целевым и переименовывается
+ * в целевой атомарно только после сброса на диск: ошибка записи,
+ * нехватка места или сбой оставляют прежний снимок нетронутым.
+ */
+final class Snapshot {
+    static final int MAGIC = 0x534C4C44;  // "DLLS" в little-endian
+    static final int VERSION = 1;
+    static final int FORMAT_INT = 0;
+    static final int FORMAT_PREFIXED = 1;
+    static final int HEADER_SIZE = 20;
+    private static final int NULL_LENGTH = -1;
+    private static final long WINDOW_SIZE = 64L << 20;
+    private static final int INT_BATCH = 8192;  // Целых чисел в одной пачке быстрого формата
+    static final String TEMP_SUFFIX = ".tmp";    // Суффикс недописанного снимка
+
+    /**
+     * Кодек целых чисел; снимки с ним пишутся в формате FORMAT_INT
+     */
+    static final SnapshotCodec<Integer> INT_CODEC = new SnapshotCodec<Integer>() {
+        @Override
+        public int encodedSize(Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer buffer) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer, int length) {
+            return buffer.getInt();
+        }
+    };
+
+    private Snapshot() {
+    }
+
+    /**
+     * Запись снимка списка в файл (файл заменяется атомарно)
+     *
+     * Если запись не удалась, прежнее содержимое файла сохраняется,
+     * а временный файл удаляется.
+     *
+     * @param list сохраняемый список
+     * @param path путь к файлу
+     * @param codec кодек значений
+     * @throws IOException при ошибке ввода-вывода
+     * @throws ClassCastException если codec - кодек Integer, а элемент не Integer
+     * @throws NullPointerException если codec - кодек Integer, а элемент null
+     */
+    static <T> void save(DoublyLinkedList<T> list, Path path, SnapshotCodec<? super T> codec) throws IOException {
+        Objects.requireNonNull(codec, "codec");
+        boolean ints = (codec == INT_CODEC);
+        long total = HEADER_SIZE + (ints ? (long) Integer.BYTES * list.size() : prefixedSize(list, codec));
+
+        Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        boolean replaced = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 Writer out = new Writer(channel, total)) {
+                out.reserve(HEADER_SIZE)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(ints ? FORMAT_INT : FORMAT_PREFIXED)
+                        .putLong(list.size());
+
+                if (ints) {
+                    writeInts(list, out);
+                } else {
+                    for (Node<T> current = list.headNode(); current != null; current = current.next) {
+                        writePrefixed(current.data, codec, out);
+                    }
+                }
+                out.finish();
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            replaced = true;
+        } finally {
+            if (!replaced) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Чтение снимка из файла в новый список
+     *
+     * @param path путь к файлу
+     * @param codec кодек значений
+     * @return новый список с элементами снимка
+     * @throws IOException при ошибке ввода-вывода или повреждении файла
+     */
+    @SuppressWarnings("unchecked")
+    static <T> DoublyLinkedList<T> load(Path path, SnapshotCodec<T> codec) throws IOException {
+        Objects.requireNonNull(codec, "codec");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             Reader in = new Reader(channel)) {
+            ByteBuffer header = in.require(HEADER_SIZE);
+            int magic = header.getInt();
+            int version = header.getInt();
+            int format = header.getInt();
+            long count = header.getLong();
+
+            if (magic != MAGIC) {
+                throw new IOException("Файл не является снимком списка: " + path);
+            }
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия снимка: " + version);
+            }
+            if (count < 0 || count > Integer.MAX_VALUE) {
+                throw new IOException("Некорректное количество элементов: " + count);
+            }
+
+            DoublyLinkedList<T> list = new DoublyLinkedList<>();
+            if (format == FORMAT_INT && codec == INT_CODEC) {
+                readInts((DoublyLinkedList<Integer>) list, (int) count, in);
+            } else if (format == FORMAT_INT) {
+                for (long i = 0; i < count; i++) {
+                    list.addLast(codec.decode(in.require(Integer.BYTES), Integer.BYTES));
+                }
+            } else if (format == FORMAT_PREFIXED) {
+                for (long i = 0; i < count; i++) {
+                    list.addLast(readPrefixed(codec, in));
+                }
+            } else {
+                throw new IOException("Неизвестный формат снимка: " + format);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Запись элементов пачками через представление IntBuffer
+     */
+    private static <T> void writeInts(DoublyLinkedList<T> list, Writer out) throws IOException {
+        int[] batch = new int[INT_BATCH];
+        int n = 0;
+        for (Node<T> current = list.headNode(); current != null; current = current.next) {
+            Object data = current.data;
+            if (data == null) {
+                throw new NullPointerException("null нельзя сохранить кодеком Integer");
+            }
+            batch[n++] = (Integer) data;
+            if (n == INT_BATCH) {
+                out.putInts(batch, n);
+                n = 0;
+            }
+        }
+        out.putInts(batch, n);
+    }
+
+    private static void readInts(DoublyLinkedList<Integer> list, int count, Reader in) throws IOException {
+        int[] batch = new int[INT_BATCH];
+        for (int remaining = count; remaining > 0; ) {
+            int n = Math.min(remaining, INT_BATCH);
+            in.getInts(batch, n);
+            for (int i = 0; i < n; i++) {
+                list.addLast(batch[i]);
+            }
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Размер элементов в формате FORMAT_PREFIXED
+     */
+    private static <T> long prefixedSize(DoublyLinkedList<T> list, SnapshotCodec<? super T> codec) {
+        long size = 0;
+        for (Node<T> current = list.headNode(); current != null; current = current.next) {
+            size += Integer.BYTES;
+            if (current.data != null) {
+                size += codec.encodedSize(current.data);
+            }
+        }
+        return size;
+    }
+
+    private static <T> void writePrefixed(T value, SnapshotCodec<? super T> codec, Writer out) throws IOException {
+        if (value == null) {
+            out.reserve(Integer.BYTES).putInt(NULL_LENGTH);
+            return;
+        }
+        int length = codec.encodedSize(value);
+        ByteBuffer buffer = out.reserve(Integer.BYTES + length);
+        buffer.putInt(length);
+        int start = buffer.position();
+        codec.encode(value, buffer);
+        if (buffer.position() - start != length) {
+            throw new IllegalStateException("Кодек записал " + (buffer.position() - start)
+                    + " байт вместо " + length);
+        }
+    }
+
+    private static <T> T readPrefixed(SnapshotCodec<T> codec, Reader in) throws IOException {
+        int length = in.require(Integer.BYTES).getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Некорректная длина значения: " + length);
+        }
+        ByteBuffer buffer = in.require(length);
+        int start = buffer.position();
+        T value = codec.decode(buffer, length);
+        buffer.position(start + length);
+        return value;
+    }
+
+    /**
+     * Последовательная запись в файл заранее известного размера
+     * через сменяемые окна отображения
+     *
+     * Буфер, возвращенный reserve, действителен только до следующего
+     * вызова reserve, finish или close: прежнее окно при этом снимается.
+     */
+    private static final class Writer implements AutoCloseable {
+        private final FileChannel channel;
+        private final long total;         // Итоговый размер файла
+        private MappedByteBuffer window;  // Текущее окно или null
+        private long windowStart;         // Смещение окна в файле (без окна - записанный размер)
+
+        Writer(FileChannel channel, long total) {
+            this.channel = channel;
+            this.total = total;
+        }
+
+        /**
+         * Буфер, в котором с текущей позиции есть место для bytes байт
+         *
+         * @throws IllegalStateException если запись выходит за рассчитанный размер
+         */
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (window == null || window.remaining() < bytes) {
+                long position = position();
+                if (total - position < bytes) {
+                    throw new IllegalStateException("Запись выходит за рассчитанный размер снимка " + total
+                            + " байт; список или размеры кодека изменились во время записи");
+                }
+                release();
+                long length = Math.min(Math.max(WINDOW_SIZE, bytes), total - position);
+                window = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                windowStart = position;
+            }
+            return window;
+        }
+
+        void putInts(int[] values, int n) throws IOException {
+            ByteBuffer buffer = reserve(n * Integer.BYTES);
+            buffer.asIntBuffer().put(values, 0, n);
+            buffer.position(buffer.position() + n * Integer.BYTES);
+        }
+
+        /**
+         * Сброс и снятие последнего окна
+         *
+         * @throws IllegalStateException если записано меньше рассчитанного
+         */
+        void finish() throws IOException {
+            release();
+            if (windowStart != total) {
+                throw new IllegalStateException("Записано " + windowStart + " байт вместо " + total
+                        + "; список или размеры кодека изменились во время записи");
+            }
+        }
+
+        /**
+         * Снятие окна без сброса (запись прервана, файл будет удален)
+         */
+        @Override
+        public void close() {
+            DirectMemory.free(window);
+            window = null;
+        }
+
+        private void release() {
+            if (window != null) {
+                window.force();
+                windowStart += window.position();
+                DirectMemory.free(window);
+                window = null;
+            }
+        }
+
+        private long position() {
+            return window == null ? windowStart : windowStart + window.position();
+        }
+    }
+
+    /**
+     * Последовательное чтение файла через сменяемые окна отображения
+     *
+     * Буфер, возвращенный require, действителен только до следующего
+     * вызова require или close: прежнее окно при этом снимается.
+     */
+    private static final class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /**
+         * Буфер, в котором с текущей позиции доступно bytes байт
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if (window == null || window.remaining() < bytes) {
+                long position = (window == null) ? 0 : windowStart + window.position();
+                if (position + bytes > size) {
+                    throw new EOFException("Снимок обрезан: нужно " + bytes + " байт с позиции " + position);
+                }
+                long length = Math.min(Math.max(WINDOW_SIZE, bytes), size - position);
+                close();
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                windowStart = position;
+            }
+            return window;
+        }
+
+        void getInts(int[] values, int n) throws IOException {
+            ByteBuffer buffer = require(n * Integer.BYTES);
+            buffer.asIntBuffer().get(values, 0, n);
+            buffer.position(buffer.position() + n * Integer.BYTES);
+        }
+
+        @Override
+        public void close() {
+            DirectMemory.free(window);
+            window = null;
+        }
+    }
+}
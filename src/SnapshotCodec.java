@@ -0,0 +1,110 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Кодек значений для бинарных снимков списка
+ *
+ * В отличие от {@link RecordCodec}, значения могут иметь разную длину:
+ * в снимке перед каждым значением записывается длина его кодировки.
+ * Кодек читает и пишет с текущей позиции буфера.
+ *
+ * @param <T> тип кодируемых значений
+ */
+public interface SnapshotCodec<T> {
+
+    /**
+     * Размер кодировки значения
+     *
+     * @param value значение (не null)
+     * @return количество байт, которое запишет encode
+     */
+    int encodedSize(T value);
+
+    /**
+     * Запись значения с текущей позиции буфера
+     *
+     * @param value значение (не null)
+     * @param buffer буфер назначения с достаточным местом
+     */
+    void encode(T value, ByteBuffer buffer);
+
+    /**
+     * Чтение значения с текущей позиции буфера
+     *
+     * Буфер - окно отображения файла, которое снимается после чтения,
+     * поэтому значение не должно ссылаться на буфер или его срезы.
+     *
+     * @param buffer исходный буфер
+     * @param length длина кодировки значения
+     * @return прочитанное значение
+     */
+    T decode(ByteBuffer buffer, int length);
+
+    /**
+     * Кодек для Integer (4 байта)
+     *
+     * Снимки с этим кодеком сохраняются в компактном формате без длин
+     * и читаются и пишутся пачками целых чисел.
+     *
+     * @return кодек целых чисел
+     */
+    static SnapshotCodec<Integer> ofInt() {
+        return Snapshot.INT_CODEC;
+    }
+
+    /**
+     * Кодек для строк в UTF-8
+     *
+     * @return кодек строк
+     */
+    static SnapshotCodec<String> ofUtf8() {
+        return new SnapshotCodec<String>() {
+            @Override
+            public int encodedSize(String value) {
+                return value.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            @Override
+            public void encode(String value, ByteBuffer buffer) {
+                buffer.put(value.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public String decode(ByteBuffer buffer, int length) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Кодек снимков на основе кодека записей фиксированной длины
+     *
+     * @param codec кодек записей
+     * @return кодек снимков с длиной кодировки codec.recordSize()
+     */
+    static <T> SnapshotCodec<T> of(RecordCodec<T> codec) {
+        Objects.requireNonNull(codec, "codec");
+        return new SnapshotCodec<T>() {
+            @Override
+            public int encodedSize(T value) {
+                return codec.recordSize();
+            }
+
+            @Override
+            public void encode(T value, ByteBuffer buffer) {
+                codec.encode(value, buffer, buffer.position());
+                buffer.position(buffer.position() + codec.recordSize());
+            }
+
+            @Override
+            public T decode(ByteBuffer buffer, int length) {
+                T value = codec.decode(buffer, buffer.position());
+                buffer.position(buffer.position() + length);
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Неизменяемое представление списка на момент вызова
+ * {@link DoublyLinkedList#snapshot()}
+ *
+ * Представление не копирует узлы: оно помнит голову, размер и версию
+ * списка. Пока представление живо, список перед изменением data или
+ * next узла, видимого снимку, сохраняет прежние значения в истории
+ * узла (Node.Revision), а обход представления читает состояние узла
+ * на свою версию. Поэтому обход можно вести из любого потока
+ * одновременно с записью в список, не блокируя писателя.
+ *
+ * Изменяющие методы бросают UnsupportedOperationException.
+ *
+ * @param <T> тип данных, хранящихся в списке
+ */
+public final class SnapshotView<T> extends AbstractCollection<T> {
+    private final Node<T> head;   // Голова списка на момент снимка
+    private final int size;       // Размер списка на момент снимка
+    private final long version;   // Версия снимка
+
+    SnapshotView(Node<T> head, int size, long version) {
+        this.head = head;
+        this.size = size;
+        this.version = version;
+    }
+
+    /**
+     * Версия снимка
+     */
+    long version() {
+        return version;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Node<T> node = head;
+            private int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public T next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                Node<T> current = node;
+                T data = current.data;
+                Node<T> following = current.next;
+                // Писатель сначала публикует историю и штамп, затем меняет поля;
+                // читатель проверяет штамп после чтения полей (как в seqlock)
+                VarHandle.loadLoadFence();
+                Node.Extra<T> extra = current.extra;
+                if (extra != null && extra.stamp > version) {
+                    VarHandle.loadLoadFence();
+                    Node.Revision<T> revision = extra.history;
+                    while (revision.stamp > version) {
+                        revision = revision.older;
+                    }
+                    data = revision.data;
+                    following = revision.next;
+                }
+                node = following;
+                remaining--;
+                return data;
+            }
+        };
+    }
+}
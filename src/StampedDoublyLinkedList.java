@@ -0,0 +1,386 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Потокобезопасная обертка над DoublyLinkedList на StampedLock
+ * 
+ * Изменения выполняются под эксклюзивной блокировкой записи. Чтения
+ * (get, contains, indexOf, size, isEmpty) сначала выполняются
+ * оптимистично, без захвата блокировки, и проверяют штамп; только
+ * если за это время была запись, чтение повторяется под разделяемой
+ * блокировкой чтения. Поэтому при редких записях читатели не
+ * конкурируют друг с другом за блокировку.
+ * 
+ * Оптимистичный обход идет прямо по узлам и каждые
+ * {@value #VALIDATE_INTERVAL} шагов проверяет штамп, так что
+ * рассогласованное состояние списка не может зациклить читателя.
+ * Если у списка включены индексы, соответствующие чтения сразу
+ * выполняются под блокировкой чтения через индекс.
+ * 
+ * Под блокировкой чтения вызываются только методы списка, не
+ * изменяющие его состояния (readAt, indexOf, обход итератором),
+ * поэтому читатели не мешают друг другу.
+ * 
+ * @param <T> тип данных, хранящихся в списке
+ */
+public class StampedDoublyLinkedList<T> {
+    private static final int VALIDATE_INTERVAL = 64;  // Шагов обхода между проверками штампа
+    
+    private final DoublyLinkedList<T> list;  // Защищаемый список
+    private final StampedLock lock;          // Блокировка со штампами
+    
+    /**
+     * Конструктор пустого списка
+     */
+    public StampedDoublyLinkedList() {
+        this(new DoublyLinkedList<>());
+    }
+    
+    /**
+     * Конструктор обертки над существующим списком
+     * 
+     * После создания обертки список нельзя изменять напрямую.
+     * 
+     * @param list защищаемый список
+     */
+    public StampedDoublyLinkedList(DoublyLinkedList<T> list) {
+        this.list = Objects.requireNonNull(list, "list");
+        this.lock = new StampedLock();
+    }
+    
+    // Изменения под блокировкой записи
+    
+    /**
+     * Добавление элемента в начало списка
+     * 
+     * @param data данные для добавления
+     */
+    public void addFirst(T data) {
+        long stamp = lock.writeLock();
+        try {
+            list.addFirst(data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Добавление элемента в конец списка
+     * 
+     * @param data данные для добавления
+     */
+    public void addLast(T data) {
+        long stamp = lock.writeLock();
+        try {
+            list.addLast(data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Добавление элемента по индексу
+     * 
+     * @param index позиция для вставки
+     * @param data данные для добавления
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public void add(int index, T data) {
+        long stamp = lock.writeLock();
+        try {
+            list.add(index, data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Удаление первого элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws java.util.NoSuchElementException если список пуст
+     */
+    public T removeFirst() {
+        long stamp = lock.writeLock();
+        try {
+            return list.removeFirst();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Удаление последнего элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws java.util.NoSuchElementException если список пуст
+     */
+    public T removeLast() {
+        long stamp = lock.writeLock();
+        try {
+            return list.removeLast();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Удаление элемента по индексу
+     * 
+     * @param index позиция элемента для удаления
+     * @return удаленный элемент
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public T remove(int index) {
+        long stamp = lock.writeLock();
+        try {
+            return list.remove(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Удаление первого вхождения элемента по значению
+     * 
+     * @param data значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    public boolean removeByValue(T data) {
+        long stamp = lock.writeLock();
+        try {
+            return list.removeByValue(data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Замена элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @param data новое значение
+     * @return прежнее значение
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public T set(int index, T data) {
+        long stamp = lock.writeLock();
+        try {
+            return list.set(index, data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Очистка списка
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            list.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    // Чтения: сначала оптимистично, затем под блокировкой чтения
+    
+    /**
+     * Получение размера списка
+     * 
+     * @return количество элементов в списке
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = list.size();
+        if (lock.validate(stamp)) {
+            return size;
+        }
+        
+        stamp = lock.readLock();
+        try {
+            return list.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Проверка пустоты списка
+     * 
+     * @return true если список пуст, false иначе
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * Получение элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @return данные элемента
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    public T get(int index) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L && !list.isPositionIndexed()) {
+            int size = list.size();
+            if (index >= 0 && index < size) {
+                Node<T> node = optimisticNodeAt(index, size, stamp);
+                if (node != null) {
+                    T data = node.data;
+                    if (lock.validate(stamp)) {
+                        return data;
+                    }
+                }
+            } else if (lock.validate(stamp)) {
+                throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+            }
+        }
+        
+        stamp = lock.readLock();
+        try {
+            // get запоминает найденный узел и не годится для общей блокировки
+            return list.readAt(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Проверка наличия элемента в списке
+     * 
+     * @param o значение для поиска
+     * @return true если элемент найден, false иначе
+     */
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+    
+    /**
+     * Поиск индекса первого вхождения элемента
+     * 
+     * @param o значение для поиска
+     * @return индекс элемента или -1 если не найден
+     */
+    public int indexOf(Object o) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L && !list.isValueIndexed()) {
+            try {
+                int result = optimisticIndexOf(o, stamp);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // equals увидел рассогласованное состояние; повторяем под блокировкой
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        
+        stamp = lock.readLock();
+        try {
+            return list.indexOf(o);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Копия содержимого, согласованная на момент вызова
+     * 
+     * @return новый список ArrayList с элементами в порядке списка
+     */
+    public List<T> toList() {
+        long stamp = lock.readLock();
+        try {
+            return new ArrayList<>(list);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Печать списка от начала к концу
+     */
+    public void printForward() {
+        long stamp = lock.readLock();
+        try {
+            list.printForward();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Печать списка от конца к началу
+     */
+    public void printBackward() {
+        long stamp = lock.readLock();
+        try {
+            list.printBackward();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+    
+    /**
+     * Оптимистичный поиск узла по индексу с ближайшего конца
+     * 
+     * @return узел или null, если штамп устарел во время обхода
+     */
+    private Node<T> optimisticNodeAt(int index, int size, long stamp) {
+        Node<T> current;
+        int steps;
+        if (index < size / 2) {
+            current = list.headNode();
+            steps = index;
+            for (int i = 0; i < steps && current != null; i++) {
+                if ((i & (VALIDATE_INTERVAL - 1)) == 0 && !lock.validate(stamp)) {
+                    return null;
+                }
+                current = current.next;
+            }
+        } else {
+            current = list.tailNode();
+            steps = size - 1 - index;
+            for (int i = 0; i < steps && current != null; i++) {
+                if ((i & (VALIDATE_INTERVAL - 1)) == 0 && !lock.validate(stamp)) {
+                    return null;
+                }
+                current = current.prev;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Оптимистичный поиск значения обходом от головы
+     * 
+     * @return индекс, -1 если не найдено, или произвольное значение,
+     *         если штамп устарел (его отбросит последующая проверка)
+     */
+    private int optimisticIndexOf(Object o, long stamp) {
+        int index = 0;
+        for (Node<T> current = list.headNode(); current != null; current = current.next) {
+            if ((index & (VALIDATE_INTERVAL - 1)) == 0 && !lock.validate(stamp)) {
+                return -1;
+            }
+            Object data = current.data;
+            if (o == null ? data == null : o.equals(data)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,90 @@
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.util.Duration;
+
+import java.util.Map;
+
+/**
+ * Панель статистики операций списка
+ *
+ * Показывает счетчики {@link ListMetrics} и обновляет их по таймеру,
+ * пока сбор статистики включен. Флажок включает и выключает сбор
+ * для всех списков процесса, как и одноименный атрибут MXBean.
+ */
+class StatsPanel {
+    private static final Duration REFRESH_INTERVAL = Duration.millis(500);
+
+    private final ListMetrics metrics = ListMetrics.getInstance();
+    private final VBox view;
+    private final CheckBox enabledBox;
+    private final Label table;
+
+    StatsPanel() {
+        enabledBox = new CheckBox("Сбор статистики");
+        enabledBox.setSelected(metrics.isEnabled());
+        enabledBox.setOnAction(e -> {
+            metrics.setEnabled(enabledBox.isSelected());
+            refresh();
+        });
+
+        Button resetBtn = new Button("Сбросить");
+        resetBtn.setOnAction(e -> {
+            metrics.reset();
+            refresh();
+        });
+
+        table = new Label();
+        table.setFont(Font.font("Monospaced", 11));
+
+        HBox header = new HBox(10, enabledBox, resetBtn);
+        view = new VBox(5, header, table);
+        view.setPadding(new Insets(5, 0, 0, 0));
+
+        Timeline timeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> {
+            // Флаг мог быть переключен через JMX
+            enabledBox.setSelected(metrics.isEnabled());
+            if (metrics.isEnabled()) {
+                refresh();
+            }
+        }));
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        timeline.play();
+        refresh();
+    }
+
+    /**
+     * Получение компонента для размещения в окне
+     */
+    VBox getView() {
+        return view;
+    }
+
+    /**
+     * Перестроение таблицы по текущим значениям счетчиков
+     */
+    private void refresh() {
+        Map<String, Long> counts = metrics.getOperationCounts();
+        Map<String, Long> means = metrics.getMeanLatencyNanos();
+        Map<String, Long> p99 = metrics.getP99LatencyNanos();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-13s %9s %8s %8s%n", "операция", "вызовов", "ср., нс", "p99, нс"));
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            String operation = entry.getKey();
+            if (entry.getValue() > 0) {
+                sb.append(String.format("%-13s %9d %8d %8d%n",
+                        operation, entry.getValue(), means.get(operation), p99.get(operation)));
+            }
+        }
+        sb.append(String.format("Переходов по узлам: %d%n", metrics.getNodeHops()));
+        sb.append(String.format("Сравнений equals:   %d", metrics.getEqualsCalls()));
+        table.setText(sb.toString());
+    }
+}
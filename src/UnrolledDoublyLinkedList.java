@@ -0,0 +1,867 @@
+import java.util.AbstractSequentialList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Развернутый (unrolled) двусвязный список
+ * 
+ * Каждый узел цепочки хранит небольшой массив элементов (блок),
+ * поэтому обход идет по соседним ячейкам памяти, а накладные
+ * расходы на ссылки prev/next делятся на все элементы блока.
+ * Переполненный блок делится пополам, а блок, заполненный меньше
+ * чем наполовину, сливается с соседом, если их элементы помещаются
+ * в один блок.
+ * 
+ * Для вызывающего кода список ведет себя так же, как
+ * {@link DoublyLinkedList}: реализует {@link List} и {@link Deque}
+ * и имеет те же методы и исключения.
+ * 
+ * @param <T> тип данных, хранящихся в списке
+ */
+public class UnrolledDoublyLinkedList<T> extends AbstractSequentialList<T> implements List<T>, Deque<T> {
+    private static final int DEFAULT_CHUNK_CAPACITY = 64;  // Размер блока по умолчанию
+    
+    private final int chunkCapacity;  // Максимальное количество элементов в блоке
+    private Chunk<T> head;            // Первый блок
+    private Chunk<T> tail;            // Последний блок
+    private int size;                 // Размер списка
+    
+    /**
+     * Конструктор пустого списка с блоками по 64 элемента
+     */
+    public UnrolledDoublyLinkedList() {
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+    
+    /**
+     * Конструктор пустого списка
+     * 
+     * @param chunkCapacity количество элементов в одном блоке
+     * @throws IllegalArgumentException если размер блока меньше 4
+     */
+    public UnrolledDoublyLinkedList(int chunkCapacity) {
+        if (chunkCapacity < 4) {
+            throw new IllegalArgumentException("Размер блока: " + chunkCapacity);
+        }
+        this.chunkCapacity = chunkCapacity;
+        this.head = null;
+        this.tail = null;
+        this.size = 0;
+    }
+    
+    /**
+     * Добавление элемента в начало списка
+     * 
+     * @param data данные для добавления
+     */
+    @Override
+    public void addFirst(T data) {
+        insert(new Cursor(head, 0), data);
+    }
+    
+    /**
+     * Добавление элемента в конец списка
+     * 
+     * @param data данные для добавления
+     */
+    @Override
+    public void addLast(T data) {
+        insert(new Cursor(null, 0), data);
+    }
+    
+    /**
+     * Добавление элемента в конец списка
+     * 
+     * @param data данные для добавления
+     * @return всегда true
+     */
+    @Override
+    public boolean add(T data) {
+        addLast(data);
+        return true;
+    }
+    
+    /**
+     * Добавление элемента по индексу
+     * 
+     * @param index позиция для вставки
+     * @param data данные для добавления
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public void add(int index, T data) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        insert(locate(index), data);
+    }
+    
+    /**
+     * Удаление первого элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return delete(new Cursor(head, 0));
+    }
+    
+    /**
+     * Удаление последнего элемента списка
+     * 
+     * @return удаленный элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return delete(new Cursor(tail, tail.count - 1));
+    }
+    
+    /**
+     * Удаление элемента по индексу
+     * 
+     * @param index позиция элемента для удаления
+     * @return удаленный элемент
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public T remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        return delete(locate(index));
+    }
+    
+    /**
+     * Удаление первого вхождения элемента по значению
+     * 
+     * @param data значение для удаления
+     * @return true если элемент был найден и удален, false иначе
+     */
+    public boolean removeByValue(T data) {
+        return removeFirstOccurrence(data);
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+    
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        for (Chunk<T> chunk = head; chunk != null; chunk = chunk.next) {
+            int offset = chunk.indexOf(o);
+            if (offset != -1) {
+                delete(new Cursor(chunk, offset));
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        for (Chunk<T> chunk = tail; chunk != null; chunk = chunk.prev) {
+            int offset = chunk.lastIndexOf(o);
+            if (offset != -1) {
+                delete(new Cursor(chunk, offset));
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Получение элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @return данные элемента
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        Cursor cursor = locate(index);
+        return cursor.chunk.get(cursor.offset);
+    }
+    
+    /**
+     * Замена элемента по индексу
+     * 
+     * @param index позиция элемента
+     * @param data новое значение
+     * @return прежнее значение
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public T set(int index, T data) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        Cursor cursor = locate(index);
+        T old = cursor.chunk.get(cursor.offset);
+        cursor.chunk.items[cursor.offset] = data;
+        return old;
+    }
+    
+    /**
+     * Проверка наличия элемента в списке
+     * 
+     * @param o значение для поиска
+     * @return true если элемент найден, false иначе
+     */
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+    
+    /**
+     * Поиск индекса первого вхождения элемента
+     * 
+     * @param o значение для поиска
+     * @return индекс элемента или -1 если не найден
+     */
+    @Override
+    public int indexOf(Object o) {
+        int base = 0;
+        for (Chunk<T> chunk = head; chunk != null; chunk = chunk.next) {
+            int offset = chunk.indexOf(o);
+            if (offset != -1) {
+                return base + offset;
+            }
+            base += chunk.count;
+        }
+        return -1;
+    }
+    
+    /**
+     * Поиск индекса последнего вхождения элемента
+     * 
+     * @param o значение для поиска
+     * @return индекс элемента или -1 если не найден
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        int base = size;
+        for (Chunk<T> chunk = tail; chunk != null; chunk = chunk.prev) {
+            base -= chunk.count;
+            int offset = chunk.lastIndexOf(o);
+            if (offset != -1) {
+                return base + offset;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Получение размера списка
+     * 
+     * @return количество элементов в списке
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Проверка пустоты списка
+     * 
+     * @return true если список пуст, false иначе
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Очистка списка
+     */
+    @Override
+    public void clear() {
+        head = tail = null;
+        size = 0;
+        modCount++;
+    }
+    
+    // Операции интерфейса Deque
+    
+    @Override
+    public boolean offerFirst(T data) {
+        addFirst(data);
+        return true;
+    }
+    
+    @Override
+    public boolean offerLast(T data) {
+        addLast(data);
+        return true;
+    }
+    
+    @Override
+    public boolean offer(T data) {
+        return offerLast(data);
+    }
+    
+    @Override
+    public void push(T data) {
+        addFirst(data);
+    }
+    
+    @Override
+    public T pollFirst() {
+        return isEmpty() ? null : removeFirst();
+    }
+    
+    @Override
+    public T pollLast() {
+        return isEmpty() ? null : removeLast();
+    }
+    
+    @Override
+    public T poll() {
+        return pollFirst();
+    }
+    
+    @Override
+    public T pop() {
+        return removeFirst();
+    }
+    
+    @Override
+    public T remove() {
+        return removeFirst();
+    }
+    
+    /**
+     * Получение первого элемента без удаления
+     * 
+     * @return первый элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return head.get(0);
+    }
+    
+    /**
+     * Получение последнего элемента без удаления
+     * 
+     * @return последний элемент
+     * @throws NoSuchElementException если список пуст
+     */
+    @Override
+    public T getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Список пуст");
+        }
+        return tail.get(tail.count - 1);
+    }
+    
+    @Override
+    public T element() {
+        return getFirst();
+    }
+    
+    @Override
+    public T peekFirst() {
+        return isEmpty() ? null : head.get(0);
+    }
+    
+    @Override
+    public T peekLast() {
+        return isEmpty() ? null : tail.get(tail.count - 1);
+    }
+    
+    @Override
+    public T peek() {
+        return peekFirst();
+    }
+    
+    /**
+     * Копия списка в обратном порядке
+     * 
+     * Как и в {@link DoublyLinkedList#reversed()}, возвращается
+     * независимая копия, а не представление.
+     * 
+     * @return новый список с элементами в обратном порядке
+     */
+    public UnrolledDoublyLinkedList<T> reversed() {
+        UnrolledDoublyLinkedList<T> copy = new UnrolledDoublyLinkedList<>(chunkCapacity);
+        for (Chunk<T> chunk = tail; chunk != null; chunk = chunk.prev) {
+            for (int i = chunk.count - 1; i >= 0; i--) {
+                copy.addLast(chunk.get(i));
+            }
+        }
+        return copy;
+    }
+    
+    // Итераторы
+    
+    @Override
+    public Iterator<T> iterator() {
+        return new ListItr(0);
+    }
+    
+    /**
+     * Двунаправленный итератор, начинающий с указанной позиции
+     * 
+     * @param index позиция первого элемента, возвращаемого next()
+     * @return итератор списка
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс: " + index + ", Размер: " + size);
+        }
+        return new ListItr(index);
+    }
+    
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new Iterator<T>() {
+            private final ListItr itr = new ListItr(size);
+            
+            @Override
+            public boolean hasNext() {
+                return itr.hasPrevious();
+            }
+            
+            @Override
+            public T next() {
+                return itr.previous();
+            }
+            
+            @Override
+            public void remove() {
+                itr.remove();
+            }
+        };
+    }
+    
+    /**
+     * Печать списка от начала к концу
+     */
+    public void printForward() {
+        if (isEmpty()) {
+            System.out.println("Список пуст");
+            return;
+        }
+        
+        StringBuilder sb = new StringBuilder("Прямой обход: ");
+        for (Chunk<T> chunk = head; chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++) {
+                sb.append(chunk.items[i]);
+                if (i < chunk.count - 1 || chunk.next != null) {
+                    sb.append(" <-> ");
+                }
+            }
+        }
+        System.out.println(sb);
+    }
+    
+    /**
+     * Печать списка от конца к началу
+     */
+    public void printBackward() {
+        if (isEmpty()) {
+            System.out.println("Список пуст");
+            return;
+        }
+        
+        StringBuilder sb = new StringBuilder("Обратный обход: ");
+        for (Chunk<T> chunk = tail; chunk != null; chunk = chunk.prev) {
+            for (int i = chunk.count - 1; i >= 0; i--) {
+                sb.append(chunk.items[i]);
+                if (i > 0 || chunk.prev != null) {
+                    sb.append(" <-> ");
+                }
+            }
+        }
+        System.out.println(sb);
+    }
+    
+    /**
+     * Поиск положения элемента по индексу
+     * 
+     * Блоки пропускаются целиком, начиная с ближайшего конца.
+     * Для index == size возвращается позиция за концом списка.
+     */
+    private Cursor locate(int index) {
+        if (index == size) {
+            return new Cursor(null, 0);
+        }
+        
+        if (index < size / 2) {
+            Chunk<T> chunk = head;
+            while (index >= chunk.count) {
+                index -= chunk.count;
+                chunk = chunk.next;
+            }
+            return new Cursor(chunk, index);
+        }
+        
+        Chunk<T> chunk = tail;
+        int base = size - chunk.count;
+        while (index < base) {
+            chunk = chunk.prev;
+            base -= chunk.count;
+        }
+        return new Cursor(chunk, index - base);
+    }
+    
+    /**
+     * Вставка элемента перед позицией курсора
+     * 
+     * Если блок заполнен, вставка на его краю создает соседний блок,
+     * а вставка в середину делит блок пополам. После вставки курсор
+     * указывает на элемент, следующий за вставленным.
+     */
+    private void insert(Cursor cursor, T data) {
+        Chunk<T> chunk = cursor.chunk;
+        int offset = cursor.offset;
+        
+        if (chunk == null) {
+            chunk = tail;
+            if (chunk == null) {
+                chunk = new Chunk<>(chunkCapacity);
+                head = tail = chunk;
+            }
+            offset = chunk.count;
+        }
+        
+        if (chunk.count == chunkCapacity) {
+            if (offset == chunkCapacity) {
+                chunk = linkChunkAfter(chunk);
+                offset = 0;
+            } else if (offset == 0) {
+                chunk = linkChunkBefore(chunk);
+            } else {
+                int half = chunkCapacity / 2;
+                Chunk<T> right = linkChunkAfter(chunk);
+                System.arraycopy(chunk.items, half, right.items, 0, chunkCapacity - half);
+                Arrays.fill(chunk.items, half, chunkCapacity, null);
+                right.count = chunkCapacity - half;
+                chunk.count = half;
+                if (offset > half) {
+                    chunk = right;
+                    offset -= half;
+                }
+            }
+        }
+        
+        System.arraycopy(chunk.items, offset, chunk.items, offset + 1, chunk.count - offset);
+        chunk.items[offset] = data;
+        chunk.count++;
+        size++;
+        modCount++;
+        
+        cursor.moveTo(chunk, offset + 1);
+    }
+    
+    /**
+     * Удаление элемента в позиции курсора
+     * 
+     * Опустевший блок исключается из цепочки, а блок, заполненный
+     * меньше чем наполовину, сливается с соседом, если их элементы
+     * помещаются в один блок. После удаления курсор указывает на
+     * элемент, следовавший за удаленным.
+     * 
+     * @return удаленный элемент
+     */
+    private T delete(Cursor cursor) {
+        Chunk<T> chunk = cursor.chunk;
+        int offset = cursor.offset;
+        T data = chunk.get(offset);
+        
+        System.arraycopy(chunk.items, offset + 1, chunk.items, offset, chunk.count - offset - 1);
+        chunk.items[--chunk.count] = null;
+        size--;
+        modCount++;
+        
+        if (chunk.count == 0) {
+            Chunk<T> next = chunk.next;
+            unlinkChunk(chunk);
+            cursor.moveTo(next, 0);
+            return data;
+        }
+        
+        if (chunk.count < chunkCapacity / 2) {
+            Chunk<T> next = chunk.next;
+            Chunk<T> prev = chunk.prev;
+            if (next != null && chunk.count + next.count <= chunkCapacity) {
+                // Следующий блок вливается в текущий, позиция курсора не меняется
+                System.arraycopy(next.items, 0, chunk.items, chunk.count, next.count);
+                chunk.count += next.count;
+                unlinkChunk(next);
+            } else if (prev != null && prev.count + chunk.count <= chunkCapacity) {
+                // Текущий блок вливается в предыдущий
+                System.arraycopy(chunk.items, 0, prev.items, prev.count, chunk.count);
+                offset += prev.count;
+                prev.count += chunk.count;
+                unlinkChunk(chunk);
+                chunk = prev;
+            }
+        }
+        
+        cursor.moveTo(chunk, offset);
+        return data;
+    }
+    
+    private Chunk<T> linkChunkAfter(Chunk<T> chunk) {
+        Chunk<T> created = new Chunk<>(chunkCapacity);
+        created.prev = chunk;
+        created.next = chunk.next;
+        if (chunk.next == null) {
+            tail = created;
+        } else {
+            chunk.next.prev = created;
+        }
+        chunk.next = created;
+        return created;
+    }
+    
+    private Chunk<T> linkChunkBefore(Chunk<T> chunk) {
+        Chunk<T> created = new Chunk<>(chunkCapacity);
+        created.next = chunk;
+        created.prev = chunk.prev;
+        if (chunk.prev == null) {
+            head = created;
+        } else {
+            chunk.prev.next = created;
+        }
+        chunk.prev = created;
+        return created;
+    }
+    
+    private void unlinkChunk(Chunk<T> chunk) {
+        if (chunk.prev == null) {
+            head = chunk.next;
+        } else {
+            chunk.prev.next = chunk.next;
+        }
+        if (chunk.next == null) {
+            tail = chunk.prev;
+        } else {
+            chunk.next.prev = chunk.prev;
+        }
+        chunk.prev = chunk.next = null;
+    }
+    
+    /**
+     * Блок элементов
+     */
+    private static final class Chunk<T> {
+        final Object[] items;  // Элементы блока, занято первых count ячеек
+        int count;             // Количество элементов в блоке
+        Chunk<T> prev;         // Предыдущий блок
+        Chunk<T> next;         // Следующий блок
+        
+        Chunk(int capacity) {
+            this.items = new Object[capacity];
+        }
+        
+        @SuppressWarnings("unchecked")
+        T get(int offset) {
+            return (T) items[offset];
+        }
+        
+        int indexOf(Object o) {
+            for (int i = 0; i < count; i++) {
+                if (o == null ? items[i] == null : o.equals(items[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        int lastIndexOf(Object o) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (o == null ? items[i] == null : o.equals(items[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * Положение элемента: блок и смещение в нем
+     * 
+     * Позиция за концом списка обозначается блоком null.
+     */
+    private class Cursor {
+        Chunk<T> chunk;  // Блок элемента или null за концом списка
+        int offset;      // Смещение элемента в блоке
+        
+        Cursor(Chunk<T> chunk, int offset) {
+            this.chunk = chunk;
+            this.offset = offset;
+        }
+        
+        /**
+         * Установка позиции с переходом в следующий блок,
+         * если смещение вышло за его конец
+         */
+        void moveTo(Chunk<T> chunk, int offset) {
+            if (chunk != null && offset >= chunk.count) {
+                chunk = chunk.next;
+                offset = 0;
+            }
+            this.chunk = chunk;
+            this.offset = offset;
+        }
+    }
+    
+    /**
+     * Двунаправленный итератор по блокам
+     * 
+     * Курсор итератора указывает на элемент, возвращаемый next().
+     * Отслеживает modCount списка и бросает
+     * ConcurrentModificationException при изменении списка в обход итератора.
+     */
+    private class ListItr extends Cursor implements ListIterator<T> {
+        private int nextIndex;             // Индекс элемента под курсором
+        private boolean canModify;         // Был ли вызван next/previous после изменения
+        private boolean lastWasPrevious;   // Последним был вызов previous()
+        private int expectedModCount = modCount;
+        
+        ListItr(int index) {
+            super(null, 0);
+            Cursor start = locate(index);
+            moveTo(start.chunk, start.offset);
+            nextIndex = index;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+        
+        @Override
+        public T next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T data = chunk.get(offset);
+            moveTo(chunk, offset + 1);
+            nextIndex++;
+            canModify = true;
+            lastWasPrevious = false;
+            return data;
+        }
+        
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+        
+        @Override
+        public T previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            stepBack();
+            nextIndex--;
+            canModify = true;
+            lastWasPrevious = true;
+            return chunk.get(offset);
+        }
+        
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+        
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+        
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (!canModify) {
+                throw new IllegalStateException();
+            }
+            if (!lastWasPrevious) {
+                // Последний возвращенный элемент стоит перед курсором
+                stepBack();
+                nextIndex--;
+            }
+            delete(this);
+            canModify = false;
+            expectedModCount = modCount;
+        }
+        
+        @Override
+        public void set(T data) {
+            if (!canModify) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            if (lastWasPrevious) {
+                chunk.items[offset] = data;
+            } else {
+                Cursor last = new Cursor(chunk, offset);
+                if (last.chunk == null) {
+                    last.chunk = tail;
+                    last.offset = tail.count;
+                } else if (last.offset == 0) {
+                    last.chunk = last.chunk.prev;
+                    last.offset = last.chunk.count;
+                }
+                last.chunk.items[last.offset - 1] = data;
+            }
+        }
+        
+        @Override
+        public void add(T data) {
+            checkForComodification();
+            insert(this, data);
+            nextIndex++;
+            canModify = false;
+            expectedModCount = modCount;
+        }
+        
+        /**
+         * Перемещение курсора на предыдущий элемент
+         */
+        private void stepBack() {
+            if (chunk == null) {
+                chunk = tail;
+                offset = tail.count - 1;
+            } else if (offset == 0) {
+                chunk = chunk.prev;
+                offset = chunk.count - 1;
+            } else {
+                offset--;
+            }
+        }
+        
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
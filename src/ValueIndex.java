@@ -0,0 +1,219 @@
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Хеш-индекс значений списка
+ * 
+ * Отображает значение элемента на узел с этим значением, а при
+ * повторах - на множество таких узлов. Позволяет за O(1) в среднем
+ * проверять наличие значения и находить узел без вызова equals
+ * на каждом элементе списка.
+ * 
+ * Элементы списка не должны менять hashCode, пока находятся в индексе.
+ * 
+ * @param <T> тип данных, хранящихся в узлах
+ */
+class ValueIndex<T> {
+    // Значение -> Node<T> для уникальных значений или NodeSet для повторов
+    private final Map<Object, Object> map = new HashMap<>();
+    
+    /**
+     * Построение индекса по цепочке узлов
+     * 
+     * @param head голова списка
+     */
+    ValueIndex(Node<T> head) {
+        for (Node<T> current = head; current != null; current = current.next) {
+            add(current);
+        }
+    }
+    
+    /**
+     * Регистрация всех узлов цепочки от first до конца или до last включительно
+     * 
+     * @param first первый узел цепочки
+     * @param last последний узел цепочки (null - до конца)
+     */
+    void addChain(Node<T> first, Node<T> last) {
+        for (Node<T> current = first; current != null; current = current.next) {
+            add(current);
+            if (current == last) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Удаление из индекса всех узлов цепочки от first до конца
+     * 
+     * @param first первый узел цепочки
+     */
+    void removeChain(Node<T> first) {
+        for (Node<T> current = first; current != null; current = current.next) {
+            remove(current);
+        }
+    }
+    
+    /**
+     * Регистрация узла под его текущим значением
+     */
+    @SuppressWarnings("unchecked")
+    void add(Node<T> node) {
+        Object existing = map.putIfAbsent(node.data, node);
+        if (existing == null) {
+            return;
+        }
+        if (existing instanceof NodeSet) {
+            ((NodeSet<T>) existing).add(node);
+        } else {
+            NodeSet<T> nodes = new NodeSet<>();
+            nodes.add((Node<T>) existing);
+            nodes.add(node);
+            map.put(node.data, nodes);
+        }
+    }
+    
+    /**
+     * Удаление узла из индекса
+     * 
+     * Должно вызываться до изменения node.data.
+     */
+    @SuppressWarnings("unchecked")
+    void remove(Node<T> node) {
+        Object existing = map.get(node.data);
+        if (existing == node) {
+            map.remove(node.data);
+        } else if (existing instanceof NodeSet) {
+            NodeSet<T> nodes = (NodeSet<T>) existing;
+            nodes.remove(node);
+            if (nodes.size() == 1) {
+                map.put(node.data, nodes.iterator().next());
+            }
+        }
+    }
+    
+    /**
+     * Проверка наличия значения
+     */
+    boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+    
+    /**
+     * Поиск первого по порядку списка узла со значением
+     * 
+     * Если значение встречается один раз, узел возвращается сразу.
+     * При повторах список проходится от головы со сравнением ссылок
+     * до первого узла из множества.
+     * 
+     * @param o искомое значение
+     * @param head голова списка
+     * @return узел или null, если значения нет
+     */
+    @SuppressWarnings("unchecked")
+    Node<T> first(Object o, Node<T> head) {
+        Object existing = map.get(o);
+        if (!(existing instanceof NodeSet)) {
+            return (Node<T>) existing;
+        }
+        NodeSet<T> nodes = (NodeSet<T>) existing;
+        for (Node<T> current = head; current != null; current = current.next) {
+            if (nodes.contains(current)) {
+                return current;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Поиск первого по порядку списка узла со значением по индексу позиций
+     * 
+     * При повторах выбирается узел с наименьшим рангом, без обхода списка.
+     * 
+     * @param o искомое значение
+     * @param positions индекс позиций списка
+     * @return узел или null, если значения нет
+     */
+    @SuppressWarnings("unchecked")
+    Node<T> first(Object o, PositionIndex<T> positions) {
+        Object existing = map.get(o);
+        if (!(existing instanceof NodeSet)) {
+            return (Node<T>) existing;
+        }
+        Node<T> best = null;
+        int bestRank = Integer.MAX_VALUE;
+        for (Node<T> node : (NodeSet<T>) existing) {
+            int rank = positions.rank(node);
+            if (rank < bestRank) {
+                bestRank = rank;
+                best = node;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Поиск последнего по порядку списка узла со значением по индексу позиций
+     * 
+     * @param o искомое значение
+     * @param positions индекс позиций списка
+     * @return узел или null, если значения нет
+     */
+    @SuppressWarnings("unchecked")
+    Node<T> last(Object o, PositionIndex<T> positions) {
+        Object existing = map.get(o);
+        if (!(existing instanceof NodeSet)) {
+            return (Node<T>) existing;
+        }
+        Node<T> best = null;
+        int bestRank = -1;
+        for (Node<T> node : (NodeSet<T>) existing) {
+            int rank = positions.rank(node);
+            if (rank > bestRank) {
+                bestRank = rank;
+                best = node;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Поиск последнего по порядку списка узла со значением
+     * 
+     * @param o искомое значение
+     * @param tail хвост списка
+     * @return узел или null, если значения нет
+     */
+    @SuppressWarnings("unchecked")
+    Node<T> last(Object o, Node<T> tail) {
+        Object existing = map.get(o);
+        if (!(existing instanceof NodeSet)) {
+            return (Node<T>) existing;
+        }
+        NodeSet<T> nodes = (NodeSet<T>) existing;
+        for (Node<T> current = tail; current != null; current = current.prev) {
+            if (nodes.contains(current)) {
+                return current;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Очистка индекса
+     */
+    void clear() {
+        map.clear();
+    }
+    
+    /**
+     * Множество узлов с одинаковым значением
+     * 
+     * Node не переопределяет equals, поэтому узлы сравниваются по ссылке.
+     */
+    private static final class NodeSet<T> extends HashSet<Node<T>> {
+        private static final long serialVersionUID = 1L;
+    }
+}
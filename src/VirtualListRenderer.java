@@ -0,0 +1,313 @@
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+
+/**
+ * Виртуализированная визуализация двусвязного списка
+ *
+ * На панели находятся только узлы, попадающие в видимую область
+ * ScrollPane, и небольшой запас с каждой стороны. Графика узлов
+ * переиспользуется при прокрутке, а ширина панели вычисляется
+ * по размеру списка, поэтому время отрисовки не зависит от длины списка.
+ */
+class VirtualListRenderer implements ListRenderer {
+    private static final int BUFFER = 2;  // Узлов за краем видимой области с каждой стороны
+
+    private static final Font VALUE_FONT = new Font("Times New Roman", 20);
+    private static final Font INDEX_FONT = new Font("Times New Roman", 12);
+    private static final Font LABEL_FONT = new Font("Times New Roman", 14);
+    private static final Font INFO_FONT = new Font("Times New Roman", 16);
+    private static final Font EMPTY_FONT = new Font("Times New Roman", 18);
+
+    private final DoublyLinkedList<Integer> list;
+    private final ScrollPane scrollPane;
+    private final Pane pane;
+    private final List<NodeCell> active = new ArrayList<>();  // Ячейки, привязанные к индексам списка
+    private final Deque<NodeCell> spare = new ArrayDeque<>();  // Скрытые ячейки для повторного использования
+    private final Text headLabel;
+    private final Text tailLabel;
+    private final Text sizeInfo;
+    private final Text emptyText;
+
+    /**
+     * Создание визуализации списка
+     *
+     * @param list отображаемый список
+     */
+    VirtualListRenderer(DoublyLinkedList<Integer> list) {
+        this.list = list;
+
+        pane = new Pane();
+        pane.setMinHeight(MIN_HEIGHT);
+        pane.setStyle("-fx-background-color: #ecf0f1;");
+
+        headLabel = createLabel("HEAD", "#2ecc71");
+        tailLabel = createLabel("TAIL", "#e74c3c");
+
+        sizeInfo = new Text();
+        sizeInfo.setFont(INFO_FONT);
+        sizeInfo.setFill(Color.web("#34495e"));
+        sizeInfo.setStyle("-fx-font-weight: bold;");
+        sizeInfo.setY(30);
+
+        emptyText = new Text("Список пуст");
+        emptyText.setFont(EMPTY_FONT);
+        emptyText.setFill(Color.GRAY);
+
+        pane.getChildren().addAll(headLabel, tailLabel, sizeInfo, emptyText);
+
+        scrollPane = new ScrollPane(pane);
+        scrollPane.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        scrollPane.setFitToHeight(true);
+
+        // Прокрутка и изменение размеров окна меняют только набор видимых узлов
+        scrollPane.hvalueProperty().addListener((obs, oldValue, newValue) -> layoutWindow());
+        scrollPane.viewportBoundsProperty().addListener((obs, oldValue, newValue) -> layoutWindow());
+    }
+
+    @Override
+    public ScrollPane getView() {
+        return scrollPane;
+    }
+
+    @Override
+    public void refresh() {
+        for (NodeCell cell : active) {
+            release(cell);
+        }
+        active.clear();
+        layoutWindow();
+    }
+
+    /**
+     * Сдвиг ячеек после вставки и привязка одной новой ячейки
+     *
+     * Значения остальных видимых узлов не перечитываются из списка.
+     */
+    @Override
+    public void inserted(int index, Integer value) {
+        for (NodeCell cell : active) {
+            if (cell.index >= index) {
+                cell.index++;
+            }
+        }
+        NodeCell cell = obtainCell();
+        cell.index = index;
+        cell.setValue(value);
+        active.add(cell);
+        layoutWindow();
+    }
+
+    /**
+     * Освобождение ячейки удаленного узла и сдвиг следующих за ним
+     */
+    @Override
+    public void removed(int index) {
+        for (Iterator<NodeCell> it = active.iterator(); it.hasNext(); ) {
+            NodeCell cell = it.next();
+            if (cell.index == index) {
+                release(cell);
+                it.remove();
+            } else if (cell.index > index) {
+                cell.index--;
+            }
+        }
+        layoutWindow();
+    }
+
+    /**
+     * Приведение набора ячеек к текущей видимой области
+     *
+     * Ячейки, чьи индексы остались в области, только перемещаются;
+     * значения из списка читаются лишь для индексов без ячейки.
+     */
+    private void layoutWindow() {
+        int size = list.size();
+        double viewportWidth = scrollPane.getViewportBounds().getWidth();
+        double offset = ListRenderer.horizontalOffset(scrollPane, ListRenderer.contentWidth(size));
+        pane.setPrefWidth(ListRenderer.contentWidth(size));
+
+        boolean empty = (size == 0);
+        emptyText.setVisible(empty);
+        sizeInfo.setVisible(!empty);
+        headLabel.setVisible(!empty);
+        tailLabel.setVisible(!empty);
+
+        if (empty) {
+            for (NodeCell cell : active) {
+                release(cell);
+            }
+            active.clear();
+            emptyText.setX(offset + viewportWidth / 2 - 50);
+            emptyText.setY(Math.max(pane.getHeight(), MIN_HEIGHT) / 2);
+            return;
+        }
+
+        int from = Math.max(0, ListRenderer.firstVisible(offset) - BUFFER);
+        int to = Math.min(size - 1, ListRenderer.lastVisible(offset + viewportWidth, size) + BUFFER);
+
+        boolean[] covered = new boolean[to - from + 1];
+        for (Iterator<NodeCell> it = active.iterator(); it.hasNext(); ) {
+            NodeCell cell = it.next();
+            if (cell.index < from || cell.index > to || covered[cell.index - from]) {
+                release(cell);
+                it.remove();
+            } else {
+                covered[cell.index - from] = true;
+                cell.place(size);
+            }
+        }
+
+        // Недостающие значения читаются одним проходом на каждый непокрытый участок
+        int i = from;
+        while (i <= to) {
+            if (covered[i - from]) {
+                i++;
+                continue;
+            }
+            ListIterator<Integer> it = list.listIterator(i);
+            for (; i <= to && !covered[i - from]; i++) {
+                NodeCell cell = obtainCell();
+                cell.index = i;
+                cell.setValue(it.next());
+                cell.place(size);
+                active.add(cell);
+            }
+        }
+
+        placeLabel(headLabel, 0);
+        placeLabel(tailLabel, size - 1);
+        sizeInfo.setText("Размер списка: " + size);
+        sizeInfo.setX(offset + 20);
+    }
+
+    /**
+     * Получение свободной ячейки (создается при нехватке)
+     */
+    private NodeCell obtainCell() {
+        NodeCell cell = spare.poll();
+        if (cell == null) {
+            cell = new NodeCell();
+            pane.getChildren().add(cell);
+        }
+        cell.setVisible(true);
+        return cell;
+    }
+
+    /**
+     * Скрытие ячейки (она остается на панели для повторного использования)
+     */
+    private void release(NodeCell cell) {
+        cell.setVisible(false);
+        spare.push(cell);
+    }
+
+    private void placeLabel(Text label, int index) {
+        label.setX(ListRenderer.nodeX(index) - label.getLayoutBounds().getWidth() / 2);
+        label.setY(START_Y - NODE_RADIUS - 10);
+    }
+
+    private static Text createLabel(String text, String color) {
+        Text label = new Text(text);
+        label.setFont(LABEL_FONT);
+        label.setFill(Color.web(color));
+        label.setStyle("-fx-font-weight: bold;");
+        return label;
+    }
+
+    private static Line createLine(double startX, double startY, double endX, double endY, String color) {
+        Line line = new Line(startX, startY, endX, endY);
+        line.setStroke(Color.web(color));
+        line.setStrokeWidth(2);
+        return line;
+    }
+
+    /**
+     * Графика одного узла: круг, значение, индекс и стрелки к следующему узлу
+     *
+     * Фигуры заданы относительно центра узла, поэтому при повторном
+     * использовании ячейка только сдвигается и меняет тексты.
+     */
+    private static final class NodeCell extends Group {
+        private final Text valueText;
+        private final Text indexText;
+        private final Group arrows;
+        private int index;            // Индекс узла в списке
+        private int shownIndex = -1;  // Индекс, выведенный в тексте
+        private Integer value;        // Выведенное значение
+
+        NodeCell() {
+            Circle circle = new Circle(0, 0, NODE_RADIUS);
+            circle.setFill(Color.web("#3498db"));
+            circle.setStroke(Color.web("#2980b9"));
+            circle.setStrokeWidth(3);
+
+            valueText = new Text();
+            valueText.setFont(VALUE_FONT);
+            valueText.setFill(Color.WHITE);
+            valueText.setStyle("-fx-font-weight: bold;");
+
+            indexText = new Text();
+            indexText.setFont(INDEX_FONT);
+            indexText.setFill(Color.DARKGRAY);
+            indexText.setY(NODE_RADIUS + 20);
+
+            double from = NODE_RADIUS;
+            double to = NODE_SPACING - NODE_RADIUS;
+            arrows = new Group(
+                    // Стрелка вперед (сверху) с наконечником
+                    createLine(from, -10, to, -10, "#2ecc71"),
+                    createLine(to, -10, to - 10, -15, "#2ecc71"),
+                    createLine(to, -10, to - 10, -5, "#2ecc71"),
+                    // Стрелка назад (снизу) с наконечником
+                    createLine(to, 10, from, 10, "#e74c3c"),
+                    createLine(from, 10, from + 10, 5, "#e74c3c"),
+                    createLine(from, 10, from + 10, 15, "#e74c3c"));
+
+            getChildren().addAll(circle, valueText, indexText, arrows);
+            setLayoutY(START_Y);
+        }
+
+        /**
+         * Отображение нового значения узла
+         */
+        void setValue(Integer value) {
+            if (!Objects.equals(value, this.value)) {
+                this.value = value;
+                valueText.setText(String.valueOf(value));
+                Bounds bounds = valueText.getLayoutBounds();
+                valueText.setX(-bounds.getWidth() / 2);
+                valueText.setY(bounds.getHeight() / 4);
+            }
+        }
+
+        /**
+         * Перемещение ячейки на позицию ее индекса
+         *
+         * Текст индекса пересчитывается только при его изменении.
+         */
+        void place(int size) {
+            setLayoutX(ListRenderer.nodeX(index));
+            arrows.setVisible(index < size - 1);
+            if (shownIndex != index) {
+                shownIndex = index;
+                indexText.setText("[" + index + "]");
+                indexText.setX(-indexText.getLayoutBounds().getWidth() / 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка ConcurrentDoublyLinkedList
+ *
+ * Однопоточные операции сравниваются с java.util.LinkedList, а при
+ * одновременных вставках, извлечениях и удалениях итератором size()
+ * сверяется с числом элементов при обходе.
+ */
+class ConcurrentDoublyLinkedListTest {
+    private static final int OPERATIONS = 20_000;
+    private static final int VALUES = 8;  // Малый диапазон, чтобы значения повторялись
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 20;
+    private static final int THREAD_OPERATIONS = 20_000;
+
+    @Test
+    void randomOperationsMatchLinkedList() {
+        ConcurrentDoublyLinkedList<Integer> list = new ConcurrentDoublyLinkedList<>();
+        LinkedList<Integer> expected = new LinkedList<>();
+        Random random = new Random(8);
+
+        for (int step = 0; step < OPERATIONS; step++) {
+            int value = random.nextInt(VALUES);
+            switch (random.nextInt(9)) {
+                case 0:
+                    list.addFirst(value);
+                    expected.addFirst(value);
+                    break;
+                case 1:
+                case 2:
+                    list.addLast(value);
+                    expected.addLast(value);
+                    break;
+                case 3:
+                    assertEquals(expected.pollFirst(), list.pollFirst());
+                    break;
+                case 4:
+                    assertEquals(expected.pollLast(), list.pollLast());
+                    break;
+                case 5:
+                    assertEquals(expected.removeFirstOccurrence(value), list.removeFirstOccurrence(value));
+                    break;
+                case 6:
+                    assertEquals(expected.removeLastOccurrence(value), list.removeLastOccurrence(value));
+                    break;
+                case 7: {
+                    // Удаление итератором n-го вхождения значения
+                    int skip = random.nextInt(3);
+                    boolean descending = random.nextBoolean();
+                    assertEquals(removeOccurrence(expected, value, skip, descending),
+                            removeOccurrence(list, value, skip, descending));
+                    break;
+                }
+                default:
+                    assertEquals(expected.peekFirst(), list.peekFirst());
+                    assertEquals(expected.peekLast(), list.peekLast());
+                    assertEquals(expected.indexOf(value), list.indexOf(value));
+                    assertEquals(expected.contains(value), list.contains(value));
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+            assertEquals(expected.isEmpty(), list.isEmpty());
+            if (step % 100 == 0) {
+                assertEquals(expected, new ArrayList<>(list));
+            }
+        }
+        assertEquals(expected, new ArrayList<>(list));
+        List<Integer> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, new ArrayList<>(list.reversed()));
+    }
+
+    private static boolean removeOccurrence(Deque<Integer> deque, int value, int skip, boolean descending) {
+        Iterator<Integer> it = descending ? deque.descendingIterator() : deque.iterator();
+        while (it.hasNext()) {
+            if (it.next() == value && skip-- == 0) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void iteratorRemovesReturnedOccurrenceOfDuplicate() {
+        ConcurrentDoublyLinkedList<String> list = new ConcurrentDoublyLinkedList<>();
+        list.addLast("a");
+        list.addLast("b");
+        list.addLast("a");
+        Iterator<String> it = list.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        it.next();
+        it.next();
+        assertEquals("a", it.next());
+        assertFalse(it.hasNext());
+        // Опережение hasNext() не должно сдвигать удаляемый элемент
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+        assertEquals(List.of("a", "b"), new ArrayList<>(list));
+        assertThrows(NoSuchElementException.class, it::next);
+        assertThrows(NullPointerException.class, () -> list.addLast(null));
+    }
+
+    @Test
+    void iteratorRemoveOfPolledElementKeepsEqualElement() {
+        ConcurrentDoublyLinkedList<Integer> list = new ConcurrentDoublyLinkedList<>();
+        list.addLast(1);
+        list.addLast(1);
+        Iterator<Integer> it = list.iterator();
+        assertEquals(1, it.next());
+        // Элемент забран другим путем, равный ему остается в списке
+        assertEquals(1, list.pollFirst());
+        it.remove();
+        assertEquals(1, list.size());
+        assertEquals(List.of(1), new ArrayList<>(list));
+    }
+
+    @Test
+    void sizeMatchesTraversalAfterConcurrentMutations() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                ConcurrentDoublyLinkedList<Integer> list = new ConcurrentDoublyLinkedList<>();
+                for (int i = 0; i < 16; i++) {
+                    list.addLast(i % VALUES);
+                }
+                CountDownLatch start = new CountDownLatch(1);
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    long seed = round * THREADS + t;
+                    tasks.add(() -> {
+                        mutate(list, new Random(seed), start);
+                        return null;
+                    });
+                }
+                List<Future<Void>> futures = new ArrayList<>();
+                for (Callable<Void> task : tasks) {
+                    futures.add(executor.submit(task));
+                }
+                start.countDown();
+                for (Future<Void> future : futures) {
+                    future.get();
+                }
+
+                int traversed = 0;
+                for (Iterator<Integer> it = list.iterator(); it.hasNext(); it.next()) {
+                    traversed++;
+                }
+                assertEquals(traversed, list.size(), "Раунд " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void mutate(ConcurrentDoublyLinkedList<Integer> list, Random random, CountDownLatch start)
+            throws InterruptedException {
+        start.await();
+        for (int i = 0; i < THREAD_OPERATIONS; i++) {
+            int value = random.nextInt(VALUES);
+            switch (random.nextInt(6)) {
+                case 0:
+                    list.addFirst(value);
+                    list.pollLast();
+                    break;
+                case 1:
+                    list.addLast(value);
+                    list.pollFirst();
+                    break;
+                case 2: {
+                    // Удаление головного элемента итератором и возврат в хвост
+                    Iterator<Integer> it = list.iterator();
+                    if (it.hasNext()) {
+                        Integer removed = it.next();
+                        it.remove();
+                        list.addLast(removed);
+                    }
+                    break;
+                }
+                case 3: {
+                    Iterator<Integer> it = list.descendingIterator();
+                    while (it.hasNext()) {
+                        if (it.next() == value) {
+                            it.remove();
+                            list.addFirst(value);
+                            break;
+                        }
+                    }
+                    break;
+                }
+                case 4:
+                    if (list.removeFirstOccurrence(value)) {
+                        list.addLast(value);
+                    }
+                    break;
+                default:
+                    list.removeIf(x -> x == value && random.nextInt(4) == 0);
+                    list.addLast(value);
+                    break;
+            }
+        }
+    }
+
+    @Test
+    void concurrentRemovalsNeitherLoseNorDuplicateElements() throws Exception {
+        ConcurrentDoublyLinkedList<Integer> list = new ConcurrentDoublyLinkedList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Map<Integer, Integer>>> futures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    // Баланс потока: добавленные минус удаленные значения
+                    Map<Integer, Integer> balance = new HashMap<>();
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < THREAD_OPERATIONS; i++) {
+                        int value = random.nextInt(VALUES);
+                        Integer removed = null;
+                        switch (random.nextInt(4)) {
+                            case 0:
+                                list.addLast(value);
+                                balance.merge(value, 1, Integer::sum);
+                                break;
+                            case 1:
+                                removed = list.pollFirst();
+                                break;
+                            case 2:
+                                removed = list.pollLast();
+                                break;
+                            default:
+                                if (list.removeLastOccurrence(value)) {
+                                    removed = value;
+                                }
+                                break;
+                        }
+                        if (removed != null) {
+                            balance.merge(removed, -1, Integer::sum);
+                        }
+                    }
+                    return balance;
+                }));
+            }
+            start.countDown();
+            Map<Integer, Integer> remaining = new HashMap<>();
+            for (Future<Map<Integer, Integer>> future : futures) {
+                future.get().forEach((value, n) -> remaining.merge(value, n, Integer::sum));
+            }
+            remaining.values().removeIf(n -> n == 0);
+
+            Map<Integer, Integer> actual = new HashMap<>();
+            for (Integer value : list) {
+                actual.merge(value, 1, Integer::sum);
+            }
+            assertEquals(remaining, actual);
+            assertEquals(remaining.values().stream().mapToInt(Integer::intValue).sum(), list.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка DoublyLinkedList против java.util.LinkedList
+ *
+ * Случайные последовательности операций выполняются над обоими
+ * списками во всех конфигурациях (пул узлов, хеш-индекс, индекс
+ * позиций), после чего содержимое сравнивается в обоих направлениях.
+ */
+class DoublyLinkedListTest {
+    private static final int OPERATIONS = 20_000;
+    private static final int VALUES = 40;  // Малый диапазон, чтобы значения повторялись
+
+    private static DoublyLinkedList<Integer> create(String mode) {
+        DoublyLinkedList<Integer> list = mode.equals("pool") ? new DoublyLinkedList<>(64) : new DoublyLinkedList<>();
+        if (mode.equals("valueIndex") || mode.equals("allIndexes")) {
+            list.enableValueIndex();
+        }
+        if (mode.equals("positionIndex") || mode.equals("allIndexes")) {
+            list.enablePositionIndex();
+        }
+        return list;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "pool", "valueIndex", "positionIndex", "allIndexes"})
+    void randomOperationsMatchLinkedList(String mode) {
+        DoublyLinkedList<Integer> list = create(mode);
+        LinkedList<Integer> expected = new LinkedList<>();
+        Random random = new Random(mode.hashCode());
+
+        for (int step = 0; step < OPERATIONS; step++) {
+            int value = random.nextInt(VALUES);
+            int size = expected.size();
+            int index = random.nextInt(size + 1);
+            switch (random.nextInt(18)) {
+                case 0:
+                    list.addFirst(value);
+                    expected.addFirst(value);
+                    break;
+                case 1:
+                case 2:
+                    list.addLast(value);
+                    expected.addLast(value);
+                    break;
+                case 3:
+                    list.add(index, value);
+                    expected.add(index, value);
+                    break;
+                case 4:
+                    if (size > 0) {
+                        assertEquals(expected.removeFirst(), list.removeFirst());
+                    } else {
+                        assertThrows(NoSuchElementException.class, list::removeFirst);
+                    }
+                    break;
+                case 5:
+                    assertEquals(expected.pollLast(), list.pollLast());
+                    break;
+                case 6:
+                    if (size > 0) {
+                        int at = random.nextInt(size);
+                        assertEquals(expected.remove(at), list.remove(at));
+                    }
+                    break;
+                case 7:
+                    if (random.nextBoolean()) {
+                        assertEquals(expected.remove(Integer.valueOf(value)), list.removeByValue(value));
+                    } else {
+                        int at = expected.indexOf(value);
+                        if (at != -1) {
+                            expected.remove(at);
+                        }
+                        assertEquals(at, list.removeAndGetIndex(value));
+                    }
+                    break;
+                case 8:
+                    assertEquals(expected.removeLastOccurrence(value), list.removeLastOccurrence(value));
+                    break;
+                case 9:
+                    if (size > 0) {
+                        int at = random.nextInt(size);
+                        assertEquals(expected.set(at, value), list.set(at, value));
+                        assertEquals(expected.get(at), list.get(at));
+                    }
+                    break;
+                case 10:
+                    assertEquals(expected.indexOf(value), list.indexOf(value));
+                    assertEquals(expected.lastIndexOf(value), list.lastIndexOf(value));
+                    assertEquals(expected.contains(value), list.contains(value));
+                    break;
+                case 11:
+                    walkWithListIterator(list, expected, random);
+                    break;
+                case 12: {
+                    List<Integer> items = Arrays.asList(value, value + 1, value + 2);
+                    list.addAll(index, items);
+                    expected.addAll(index, items);
+                    break;
+                }
+                case 13: {
+                    DoublyLinkedList<Integer> tail = list.split(index);
+                    assertEquals(expected.subList(index, size), tail);
+                    assertEquals(expected.subList(0, index), list);
+                    list.splice(tail);
+                    assertTrue(tail.isEmpty());
+                    break;
+                }
+                case 14: {
+                    int divisor = 2 + random.nextInt(5);
+                    assertEquals(expected.removeIf(x -> x % divisor == 0 && x > VALUES / 2),
+                            list.removeIf(x -> x % divisor == 0 && x > VALUES / 2));
+                    break;
+                }
+                case 15:
+                    if (random.nextInt(20) == 0) {
+                        list.sort(Comparator.reverseOrder());
+                        expected.sort(Comparator.reverseOrder());
+                    }
+                    break;
+                case 16:
+                    if (random.nextInt(200) == 0) {
+                        list.clear();
+                        expected.clear();
+                    }
+                    break;
+                default:
+                    assertEquals(expected.peekFirst(), list.peekFirst());
+                    assertEquals(expected.peekLast(), list.peekLast());
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+            if (step % 100 == 0) {
+                assertSameContent(expected, list);
+            }
+        }
+        assertSameContent(expected, list);
+    }
+
+    /**
+     * Проход итератором с вставкой, заменой и удалением в обоих списках
+     */
+    private static void walkWithListIterator(DoublyLinkedList<Integer> list, LinkedList<Integer> expected,
+                                             Random random) {
+        int start = random.nextInt(expected.size() + 1);
+        ListIterator<Integer> actual = list.listIterator(start);
+        ListIterator<Integer> reference = expected.listIterator(start);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(reference.nextIndex(), actual.nextIndex());
+            assertEquals(reference.hasNext(), actual.hasNext());
+            assertEquals(reference.hasPrevious(), actual.hasPrevious());
+            boolean forward = random.nextBoolean();
+            if (forward ? !reference.hasNext() : !reference.hasPrevious()) {
+                continue;
+            }
+            assertEquals(forward ? reference.next() : reference.previous(),
+                    forward ? actual.next() : actual.previous());
+            switch (random.nextInt(4)) {
+                case 0:
+                    reference.remove();
+                    actual.remove();
+                    break;
+                case 1:
+                    reference.set(-i);
+                    actual.set(-i);
+                    break;
+                case 2:
+                    reference.add(-i);
+                    actual.add(-i);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void assertSameContent(List<Integer> expected, DoublyLinkedList<Integer> list) {
+        assertEquals(expected, list);
+        List<Integer> backward = new ArrayList<>();
+        for (Iterator<Integer> it = list.descendingIterator(); it.hasNext(); ) {
+            backward.add(it.next());
+        }
+        List<Integer> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, backward);
+    }
+
+    @Test
+    void nullElementsAreStoredAndFound() {
+        DoublyLinkedList<String> list = new DoublyLinkedList<>();
+        list.addLast("a");
+        list.addLast(null);
+        list.addLast("b");
+        list.addLast(null);
+        assertEquals(1, list.indexOf(null));
+        assertEquals(3, list.lastIndexOf(null));
+        list.enableValueIndex();
+        assertTrue(list.removeByValue(null));
+        assertEquals(Arrays.asList("a", "b", null), list);
+    }
+
+    @Test
+    void indexOutOfRangeReportsIndexAndSize() {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        list.addLast(1);
+        IndexOutOfBoundsException e = assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertEquals("Индекс: 1, Размер: 1", e.getMessage());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(-1));
+    }
+
+    // Итераторы
+
+    @Test
+    void iteratorFailsFastAfterStructuralChange() {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        list.addAll(Arrays.asList(1, 2, 3));
+        Iterator<Integer> it = list.iterator();
+        it.next();
+        list.addLast(4);
+        assertThrows(ConcurrentModificationException.class, it::next);
+
+        ListIterator<Integer> listIt = list.listIterator();
+        listIt.next();
+        list.removeFirst();
+        assertThrows(ConcurrentModificationException.class, listIt::remove);
+
+        Iterator<Integer> descending = list.descendingIterator();
+        descending.next();
+        list.clear();
+        assertThrows(ConcurrentModificationException.class, descending::next);
+    }
+
+    @Test
+    void iteratorRemoveRequiresPrecedingNext() {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        list.addAll(Arrays.asList(1, 2, 3));
+        Iterator<Integer> it = list.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+
+        ListIterator<Integer> listIt = list.listIterator();
+        listIt.next();
+        listIt.add(9);
+        assertThrows(IllegalStateException.class, listIt::remove);
+        assertThrows(IllegalStateException.class, () -> listIt.set(0));
+        assertEquals(Arrays.asList(2, 9, 3), list);
+    }
+
+    @Test
+    void iteratorRemovalKeepsIterationGoing() {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        for (int i = 0; i < 10; i++) {
+            list.addLast(i);
+        }
+        for (Iterator<Integer> it = list.iterator(); it.hasNext(); ) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(Arrays.asList(1, 3, 5, 7, 9), list);
+
+        for (Iterator<Integer> it = list.descendingIterator(); it.hasNext(); ) {
+            if (it.next() > 4) {
+                it.remove();
+            }
+        }
+        assertEquals(Arrays.asList(1, 3), list);
+        assertEquals(Arrays.asList(3, 1), list.reversed());
+
+        ListIterator<Integer> it = list.listIterator(list.size());
+        assertEquals(3, it.previous());
+        it.remove();
+        assertEquals(1, it.previous());
+        it.remove();
+        assertFalse(it.hasPrevious());
+        assertTrue(list.isEmpty());
+        assertNull(list.peekFirst());
+        assertThrows(NoSuchElementException.class, it::previous);
+    }
+
+    @Test
+    void iteratorExhaustionThrowsNoSuchElement() {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        list.addLast(1);
+        Iterator<Integer> it = list.iterator();
+        it.next();
+        assertThrows(NoSuchElementException.class, it::next);
+        Iterator<Integer> descending = list.descendingIterator();
+        descending.next();
+        assertThrows(NoSuchElementException.class, descending::next);
+    }
+}
@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка IntDoublyLinkedList против java.util.LinkedList
+ */
+class IntDoublyLinkedListTest {
+    private static final int OPERATIONS = 20_000;
+    private static final int VALUES = 40;
+
+    @Test
+    void randomOperationsMatchLinkedList() {
+        // Малая начальная емкость, чтобы массивы узлов многократно росли
+        IntDoublyLinkedList list = new IntDoublyLinkedList(2);
+        LinkedList<Integer> expected = new LinkedList<>();
+        Random random = new Random(2);
+
+        for (int step = 0; step < OPERATIONS; step++) {
+            int value = random.nextInt(VALUES) - VALUES / 2;
+            int size = expected.size();
+            switch (random.nextInt(10)) {
+                case 0:
+                    list.addFirst(value);
+                    expected.addFirst(value);
+                    break;
+                case 1:
+                case 2:
+                    list.addLast(value);
+                    expected.addLast(value);
+                    break;
+                case 3: {
+                    int index = random.nextInt(size + 1);
+                    list.add(index, value);
+                    expected.add(index, value);
+                    break;
+                }
+                case 4:
+                    if (size > 0) {
+                        assertEquals(expected.removeFirst(), list.removeFirst());
+                    } else {
+                        assertThrows(NoSuchElementException.class, list::removeFirst);
+                    }
+                    break;
+                case 5:
+                    if (size > 0) {
+                        assertEquals(expected.removeLast(), list.removeLast());
+                    }
+                    break;
+                case 6:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.remove(index), list.remove(index));
+                    }
+                    break;
+                case 7:
+                    assertEquals(expected.remove(Integer.valueOf(value)), list.removeByValue(value));
+                    break;
+                case 8:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.set(index, value), list.set(index, value));
+                        assertEquals(expected.get(index), list.get(index));
+                        assertEquals(expected.getFirst(), list.getFirst());
+                        assertEquals(expected.getLast(), list.getLast());
+                    }
+                    break;
+                default:
+                    assertEquals(expected.indexOf(value), list.indexOf(value));
+                    assertEquals(expected.contains(value), list.contains(value));
+                    if (random.nextInt(500) == 0) {
+                        list.clear();
+                        expected.clear();
+                    }
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+            if (step % 100 == 0) {
+                assertArrayEquals(toArray(expected), list.toArray());
+            }
+        }
+        assertArrayEquals(toArray(expected), list.toArray());
+    }
+
+    private static int[] toArray(LinkedList<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void iteratorFailsFastAndStopsAtEnd() {
+        IntDoublyLinkedList list = new IntDoublyLinkedList();
+        list.addLast(1);
+        list.addLast(2);
+        PrimitiveIterator.OfInt it = list.iterator();
+        assertEquals(1, it.nextInt());
+        list.addLast(3);
+        assertThrows(ConcurrentModificationException.class, it::nextInt);
+
+        PrimitiveIterator.OfInt fresh = list.iterator();
+        fresh.nextInt();
+        fresh.nextInt();
+        fresh.nextInt();
+        assertThrows(NoSuchElementException.class, fresh::nextInt);
+    }
+
+    @Test
+    void indexOutOfRangeIsRejected() {
+        IntDoublyLinkedList list = new IntDoublyLinkedList();
+        list.addLast(7);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(-1));
+        assertThrows(NoSuchElementException.class, () -> new IntDoublyLinkedList().getFirst());
+    }
+}
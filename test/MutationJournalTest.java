@@ -0,0 +1,224 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка восстановления списка из журнала изменений
+ *
+ * После каждого изменения журнал сбрасывается на диск, и запоминаются
+ * размер сегмента и состояние списка. Так известно, какой записи
+ * принадлежит каждый байт сегмента и что должно восстановиться,
+ * если запись оборвана или повреждена.
+ */
+class MutationJournalTest {
+    private static final int MUTATIONS = 60;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Состояния списка и размеры сегмента после каждого изменения
+     */
+    private final List<List<Integer>> states = new ArrayList<>();
+    private final List<Long> sizes = new ArrayList<>();
+
+    @Test
+    void reopenedJournalRestoresEveryOperation() throws IOException {
+        List<Integer> expected = writeMutations();
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            assertEquals(expected, journal.list());
+        }
+    }
+
+    @Test
+    void truncatedLastFrameIsDropped() throws IOException {
+        writeMutations();
+        Path segment = latestSegment();
+        long intact = sizes.get(MUTATIONS - 2);
+        truncate(segment, sizes.get(MUTATIONS - 1) - 1);
+
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            assertEquals(states.get(MUTATIONS - 2), journal.list());
+        }
+        // Оборванный хвост отрезается при открытии
+        assertEquals(intact, Files.size(segment));
+    }
+
+    @Test
+    void corruptFrameStopsReplayAtPrecedingRecord() throws IOException {
+        writeMutations();
+        Path segment = latestSegment();
+        int corrupted = MUTATIONS / 2;
+        // Последний байт тела записи: длина цела, не сходится CRC32
+        flipByte(segment, sizes.get(corrupted) - 1);
+
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            assertEquals(states.get(corrupted - 1), journal.list());
+        }
+        assertEquals(sizes.get(corrupted - 1), Files.size(segment));
+    }
+
+    @Test
+    void journalKeepsWorkingAfterRepair() throws IOException {
+        writeMutations();
+        truncate(latestSegment(), sizes.get(MUTATIONS - 1) - 3);
+
+        List<Integer> expected;
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            DoublyLinkedList<Integer> list = journal.list();
+            list.addLast(1000);
+            list.addFirst(-1000);
+            expected = new ArrayList<>(list);
+        }
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            assertEquals(expected, journal.list());
+        }
+    }
+
+    @Test
+    void compactionFoldsSegmentsIntoSnapshot() throws Exception {
+        List<Integer> expected;
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            DoublyLinkedList<Integer> list = journal.list();
+            for (int i = 0; i < 100; i++) {
+                list.addLast(i);
+            }
+            journal.compact().get();
+            list.removeFirst();
+            list.set(0, -1);
+            journal.compact().get();
+            list.addLast(500);
+            expected = new ArrayList<>(list);
+        }
+        List<String> files = fileNames();
+        assertEquals(1, files.stream().filter(name -> name.startsWith("snapshot-")).count(), files.toString());
+        assertTrue(files.stream().noneMatch(name -> name.endsWith(Snapshot.TEMP_SUFFIX)), files.toString());
+
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            assertEquals(expected, journal.list());
+        }
+    }
+
+    @Test
+    void nullValuesSurviveReplay() throws IOException {
+        List<String> expected;
+        try (MutationJournal<String> journal = MutationJournal.open(directory, SnapshotCodec.ofUtf8())) {
+            DoublyLinkedList<String> list = journal.list();
+            list.addAll(Arrays.asList("a", null, "", "b"));
+            list.removeByValue(null);
+            list.addFirst(null);
+            list.set(2, "c");
+            expected = new ArrayList<>(list);
+        }
+        try (MutationJournal<String> journal = MutationJournal.open(directory, SnapshotCodec.ofUtf8())) {
+            assertEquals(expected, journal.list());
+        }
+    }
+
+    /**
+     * Случайные изменения всех видов с fsync после каждого
+     *
+     * @return итоговое состояние списка
+     */
+    private List<Integer> writeMutations() throws IOException {
+        Random random = new Random(19);
+        try (MutationJournal<Integer> journal = MutationJournal.open(directory, SnapshotCodec.ofInt())) {
+            DoublyLinkedList<Integer> list = journal.list();
+            Path segment = latestSegment();
+            for (int step = 0; step < MUTATIONS; step++) {
+                int value = random.nextInt(10);
+                int size = list.size();
+                switch (size < 3 ? random.nextInt(3) : random.nextInt(12)) {
+                    case 0:
+                        list.addLast(value);
+                        break;
+                    case 1:
+                        list.addFirst(value);
+                        break;
+                    case 2:
+                        list.addAll(random.nextInt(size + 1), Arrays.asList(value, value + 1, value + 2));
+                        break;
+                    case 3:
+                        list.add(random.nextInt(size + 1), value);
+                        break;
+                    case 4:
+                        list.removeFirst();
+                        break;
+                    case 5:
+                        list.removeLast();
+                        break;
+                    case 6:
+                        list.remove(random.nextInt(size));
+                        break;
+                    case 7:
+                        list.set(random.nextInt(size), value);
+                        break;
+                    case 8:
+                        list.removeFirstOccurrence(list.get(random.nextInt(size)));
+                        break;
+                    case 9:
+                        list.removeLastOccurrence(list.get(random.nextInt(size)));
+                        break;
+                    case 10:
+                        list.split(random.nextInt(size));
+                        break;
+                    default:
+                        if (random.nextInt(3) == 0) {
+                            list.clear();
+                        } else {
+                            list.addLast(value);
+                        }
+                        break;
+                }
+                journal.sync();
+                // Каждый шаг дописывает в сегмент свою запись
+                assertTrue(Files.size(segment) > (sizes.isEmpty() ? 0 : sizes.get(sizes.size() - 1)));
+                states.add(new ArrayList<>(list));
+                sizes.add(Files.size(segment));
+            }
+            return new ArrayList<>(list);
+        }
+    }
+
+    private Path latestSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("journal-"))
+                    .max((a, b) -> Long.compare(generation(a), generation(b)))
+                    .orElseThrow();
+        }
+    }
+
+    private static long generation(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.lastIndexOf('.')));
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+
+    private static void truncate(Path path, long size) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, (int) size));
+    }
+
+    private static void flipByte(Path path, long position) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[(int) position] ^= 0x5A;
+        Files.write(path, bytes);
+    }
+}
@@ -0,0 +1,140 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка OffHeapDoublyLinkedList против java.util.LinkedList
+ */
+class OffHeapDoublyLinkedListTest {
+    private static final int OPERATIONS = 20_000;
+    private static final int VALUES = 40;
+
+    @Test
+    void randomOperationsMatchLinkedList() {
+        Random random = new Random(4);
+        LinkedList<Long> expected = new LinkedList<>();
+        try (OffHeapDoublyLinkedList<Long> list = new OffHeapDoublyLinkedList<>(RecordCodec.ofLong())) {
+            for (int step = 0; step < OPERATIONS; step++) {
+                long value = random.nextInt(VALUES) - (long) Integer.MAX_VALUE;
+                int size = expected.size();
+                switch (random.nextInt(10)) {
+                    case 0:
+                        list.addFirst(value);
+                        expected.addFirst(value);
+                        break;
+                    case 1:
+                    case 2:
+                        list.addLast(value);
+                        expected.addLast(value);
+                        break;
+                    case 3: {
+                        int index = random.nextInt(size + 1);
+                        list.add(index, value);
+                        expected.add(index, value);
+                        break;
+                    }
+                    case 4:
+                        if (size > 0) {
+                            assertEquals(expected.removeFirst(), list.removeFirst());
+                        } else {
+                            assertThrows(NoSuchElementException.class, list::removeFirst);
+                        }
+                        break;
+                    case 5:
+                        if (size > 0) {
+                            assertEquals(expected.removeLast(), list.removeLast());
+                        }
+                        break;
+                    case 6:
+                        if (size > 0) {
+                            int index = random.nextInt(size);
+                            assertEquals(expected.remove(index), list.remove(index));
+                        }
+                        break;
+                    case 7:
+                        assertEquals(expected.remove(Long.valueOf(value)), list.removeByValue(value));
+                        break;
+                    case 8:
+                        if (size > 0) {
+                            int index = random.nextInt(size);
+                            assertEquals(expected.set(index, value), list.set(index, value));
+                            assertEquals(expected.get(index), list.get(index));
+                        }
+                        break;
+                    default:
+                        // Поиск сравнивает записи побайтно, не декодируя их
+                        assertEquals(expected.indexOf(value), list.indexOf(value));
+                        assertEquals(expected.contains(value), list.contains(value));
+                        if (random.nextInt(500) == 0) {
+                            list.clear();
+                            expected.clear();
+                        }
+                        break;
+                }
+                assertEquals(expected.size(), list.size());
+                if (step % 100 == 0) {
+                    assertEquals(expected, toList(list));
+                }
+            }
+            assertEquals(expected, toList(list));
+        }
+    }
+
+    private static <T> List<T> toList(Iterable<T> values) {
+        List<T> result = new ArrayList<>();
+        values.forEach(result::add);
+        return result;
+    }
+
+    @Test
+    void growsAcrossChunksAndReusesFreedSlots() {
+        try (OffHeapDoublyLinkedList<Integer> list = new OffHeapDoublyLinkedList<>(RecordCodec.ofInt())) {
+            int count = 300_000;  // Больше одного блока по 1 МБ
+            for (int i = 0; i < count; i++) {
+                list.addLast(i);
+            }
+            long allocated = list.offHeapBytes();
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, list.removeFirst());
+                list.addLast(i);
+            }
+            assertEquals(allocated, list.offHeapBytes());
+            assertEquals(count / 2, list.get(count / 2));
+            assertEquals(count - 1, list.indexOf(count - 1));
+        }
+    }
+
+    @Test
+    void iteratorFailsFast() {
+        try (OffHeapDoublyLinkedList<Integer> list = new OffHeapDoublyLinkedList<>(RecordCodec.ofInt())) {
+            list.addLast(1);
+            list.addLast(2);
+            Iterator<Integer> it = list.iterator();
+            assertEquals(1, it.next());
+            list.removeLast();
+            assertThrows(ConcurrentModificationException.class, it::next);
+        }
+    }
+
+    @Test
+    void closedListRejectsOperations() {
+        OffHeapDoublyLinkedList<Double> list = new OffHeapDoublyLinkedList<>(RecordCodec.ofDouble());
+        list.addLast(1.5);
+        list.close();
+        list.close();
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.offHeapBytes());
+        assertThrows(IllegalStateException.class, () -> list.addLast(2.5));
+        assertThrows(IllegalStateException.class, list::iterator);
+    }
+}
@@ -0,0 +1,240 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка сохранения и загрузки бинарных снимков
+ */
+class SnapshotTest {
+    private static final int LENGTH_PREFIX = Integer.BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void emptyListRoundTrip() throws IOException {
+        Path path = directory.resolve("empty.dls");
+        new DoublyLinkedList<Integer>().save(path);
+        assertEquals(Snapshot.HEADER_SIZE, Files.size(path));
+        assertTrue(DoublyLinkedList.load(path).isEmpty());
+
+        new DoublyLinkedList<String>().save(path, SnapshotCodec.ofUtf8());
+        assertEquals(Snapshot.HEADER_SIZE, Files.size(path));
+        assertTrue(DoublyLinkedList.load(path, SnapshotCodec.ofUtf8()).isEmpty());
+    }
+
+    @Test
+    void intListRoundTrip() throws IOException {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        // Больше одной пачки быстрого формата и не кратно ей
+        for (int i = 0; i < 20_000; i++) {
+            list.addLast(i * 31 - 100_000);
+        }
+        Path path = directory.resolve("ints.dls");
+        list.save(path);
+        assertEquals(Snapshot.HEADER_SIZE + (long) Integer.BYTES * list.size(), Files.size(path));
+        assertEquals(list, DoublyLinkedList.load(path));
+        // Компактный формат читается и обычным кодеком
+        assertEquals(list, DoublyLinkedList.load(path, SnapshotCodec.of(RecordCodec.ofInt())));
+    }
+
+    @Test
+    void intCodecRejectsNull() {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        list.addLast(1);
+        list.addLast(null);
+        assertThrows(NullPointerException.class, () -> list.save(directory.resolve("null.dls")));
+    }
+
+    @Test
+    void stringsWithNullsAndEmptyValuesRoundTrip() throws IOException {
+        List<String> values = Arrays.asList("", null, "a", "строка", null, "", "😀", "x".repeat(1000));
+        DoublyLinkedList<String> list = new DoublyLinkedList<>();
+        list.addAll(values);
+        Path path = directory.resolve("strings.dls");
+        list.save(path, SnapshotCodec.ofUtf8());
+
+        long expectedSize = Snapshot.HEADER_SIZE;
+        for (String value : values) {
+            expectedSize += LENGTH_PREFIX + (value == null ? 0 : SnapshotCodec.ofUtf8().encodedSize(value));
+        }
+        assertEquals(expectedSize, Files.size(path));
+        assertEquals(values, DoublyLinkedList.load(path, SnapshotCodec.ofUtf8()));
+    }
+
+    @Test
+    void recordCodecRoundTrip() throws IOException {
+        DoublyLinkedList<Long> list = new DoublyLinkedList<>();
+        list.addLast(Long.MIN_VALUE);
+        list.addLast(null);
+        list.addLast(Long.MAX_VALUE);
+        Path path = directory.resolve("longs.dls");
+        list.save(path, SnapshotCodec.of(RecordCodec.ofLong()));
+        assertEquals(Snapshot.HEADER_SIZE + 3 * LENGTH_PREFIX + 2 * Long.BYTES, Files.size(path));
+        assertEquals(list, DoublyLinkedList.load(path, SnapshotCodec.of(RecordCodec.ofLong())));
+    }
+
+    @Test
+    void valuesCrossingWindowBoundaryRoundTrip() throws IOException {
+        // Около 65 МБ: значения неровной длины пересекают границу окна в 64 МБ
+        DoublyLinkedList<byte[]> list = new DoublyLinkedList<>();
+        list.addLast(new byte[0]);
+        for (int i = 0; i < 65; i++) {
+            byte[] value = new byte[(1 << 20) + 2 * i + 1];
+            Arrays.fill(value, (byte) i);
+            list.addLast(value);
+        }
+        list.addLast(new byte[] {42});
+        Path path = directory.resolve("bytes.dls");
+        list.save(path, BYTES);
+
+        DoublyLinkedList<byte[]> loaded = DoublyLinkedList.load(path, BYTES);
+        assertEquals(list.size(), loaded.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertArrayEquals(list.get(i), loaded.get(i));
+        }
+    }
+
+    @Test
+    void failedSaveKeepsPreviousSnapshot() throws IOException {
+        DoublyLinkedList<String> saved = new DoublyLinkedList<>();
+        saved.addAll(Arrays.asList("a", "b", "c"));
+        Path path = directory.resolve("kept.dls");
+        saved.save(path, SnapshotCodec.ofUtf8());
+        byte[] before = Files.readAllBytes(path);
+
+        DoublyLinkedList<String> broken = new DoublyLinkedList<>();
+        broken.addAll(Arrays.asList("x", "fail", "y"));
+        assertThrows(IllegalArgumentException.class, () -> broken.save(path, FAILING));
+        assertArrayEquals(before, Files.readAllBytes(path));
+        assertEquals(saved, DoublyLinkedList.load(path, SnapshotCodec.ofUtf8()));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(path), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void codecWritingWrongLengthIsRejected() throws IOException {
+        DoublyLinkedList<String> list = new DoublyLinkedList<>();
+        list.addLast("abc");
+        Path path = directory.resolve("short.dls");
+        assertThrows(IllegalStateException.class, () -> list.save(path, SHORT));
+        assertTrue(Files.notExists(path));
+        assertTrue(Files.notExists(directory.resolve("short.dls" + Snapshot.TEMP_SUFFIX)));
+    }
+
+    @Test
+    void corruptFilesAreRejected() throws IOException {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        list.addAll(Arrays.asList(1, 2, 3));
+        Path path = directory.resolve("corrupt.dls");
+        list.save(path);
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(EOFException.class, () -> DoublyLinkedList.load(path));
+
+        bytes[0] ^= 1;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> DoublyLinkedList.load(path));
+
+        Files.write(path, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+        assertThrows(EOFException.class, () -> DoublyLinkedList.load(path));
+    }
+
+    @Test
+    void saveReplacesExistingSnapshot() throws IOException {
+        // Повторное сохранение поверх существующего снимка заменяет его
+        Path path = directory.resolve("replace.dls");
+        List<Integer> expected = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+            for (int i = 0; i <= round * 1000; i++) {
+                list.addLast(round);
+            }
+            list.save(path);
+            expected = new ArrayList<>(list);
+        }
+        assertEquals(expected, DoublyLinkedList.load(path));
+    }
+
+    private static final SnapshotCodec<byte[]> BYTES = new SnapshotCodec<byte[]>() {
+        @Override
+        public int encodedSize(byte[] value) {
+            return value.length;
+        }
+
+        @Override
+        public void encode(byte[] value, ByteBuffer buffer) {
+            buffer.put(value);
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer buffer, int length) {
+            byte[] value = new byte[length];
+            buffer.get(value);
+            return value;
+        }
+    };
+
+    /**
+     * Кодек, который отказывает на значении "fail" посреди записи
+     */
+    private static final SnapshotCodec<String> FAILING = new SnapshotCodec<String>() {
+        private final SnapshotCodec<String> utf8 = SnapshotCodec.ofUtf8();
+
+        @Override
+        public int encodedSize(String value) {
+            return utf8.encodedSize(value);
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer buffer) {
+            if (value.equals("fail")) {
+                throw new IllegalArgumentException(value);
+            }
+            utf8.encode(value, buffer);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer, int length) {
+            return utf8.decode(buffer, length);
+        }
+    };
+
+    /**
+     * Кодек, записывающий на байт меньше объявленного размера
+     */
+    private static final SnapshotCodec<String> SHORT = new SnapshotCodec<String>() {
+        @Override
+        public int encodedSize(String value) {
+            return value.length();
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer buffer) {
+            buffer.put(value.substring(1).getBytes());
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer, int length) {
+            throw new UnsupportedOperationException();
+        }
+    };
+}
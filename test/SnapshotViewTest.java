@@ -0,0 +1,169 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка снимков списка: каждый снимок должен показывать
+ * содержимое на момент вызова snapshot(), что бы ни делал список потом
+ */
+class SnapshotViewTest {
+    private static final int OPERATIONS = 5_000;
+    private static final int VALUES = 40;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "pool", "allIndexes"})
+    void snapshotsKeepContentAcrossMutations(String mode) {
+        DoublyLinkedList<Integer> list = mode.equals("pool") ? new DoublyLinkedList<>(64) : new DoublyLinkedList<>();
+        if (mode.equals("allIndexes")) {
+            list.enableValueIndex();
+            list.enablePositionIndex();
+        }
+        Random random = new Random(mode.hashCode());
+        List<SnapshotView<Integer>> views = new ArrayList<>();
+        List<List<Integer>> contents = new ArrayList<>();
+
+        for (int step = 0; step < OPERATIONS; step++) {
+            int value = random.nextInt(VALUES);
+            int size = list.size();
+            switch (random.nextInt(10)) {
+                case 0:
+                    list.addFirst(value);
+                    break;
+                case 1:
+                case 2:
+                    list.add(random.nextInt(size + 1), value);
+                    break;
+                case 3:
+                    list.pollFirst();
+                    break;
+                case 4:
+                    list.pollLast();
+                    break;
+                case 5:
+                    if (size > 0) {
+                        list.remove(random.nextInt(size));
+                    }
+                    break;
+                case 6:
+                    list.removeByValue(value);
+                    break;
+                case 7:
+                    if (size > 0) {
+                        list.set(random.nextInt(size), value);
+                    }
+                    break;
+                case 8:
+                    if (random.nextInt(50) == 0) {
+                        list.sort(Comparator.naturalOrder());
+                    } else if (random.nextInt(50) == 0) {
+                        list.clear();
+                    } else {
+                        list.removeIf(x -> x == value);
+                    }
+                    break;
+                default:
+                    // Старые снимки сменяются новыми, часть живет до конца
+                    if (views.size() > 20) {
+                        int drop = random.nextInt(views.size());
+                        views.remove(drop);
+                        contents.remove(drop);
+                    }
+                    views.add(list.snapshot());
+                    contents.add(new ArrayList<>(list));
+                    break;
+            }
+            if (step % 50 == 0) {
+                for (int i = 0; i < views.size(); i++) {
+                    assertEquals(contents.get(i), new ArrayList<>(views.get(i)), "Снимок " + i);
+                }
+            }
+        }
+        for (int i = 0; i < views.size(); i++) {
+            assertEquals(contents.get(i), new ArrayList<>(views.get(i)), "Снимок " + i);
+            assertEquals(contents.get(i).size(), views.get(i).size());
+        }
+    }
+
+    @Test
+    void viewIsReadOnly() {
+        DoublyLinkedList<String> list = new DoublyLinkedList<>();
+        list.addAll(Arrays.asList("a", null, "b"));
+        SnapshotView<String> view = list.snapshot();
+        list.clear();
+        assertEquals(Arrays.asList("a", null, "b"), new ArrayList<>(view));
+        assertThrows(UnsupportedOperationException.class, () -> view.add("c"));
+        Iterator<String> it = view.iterator();
+        it.next();
+        assertThrows(UnsupportedOperationException.class, it::remove);
+        it.next();
+        it.next();
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void viewIsTraversableWhileListChanges() throws Exception {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>(64);
+        for (int i = 0; i < 1000; i++) {
+            list.addLast(i);
+        }
+        SnapshotView<Integer> view = list.snapshot();
+        List<Integer> expected = new ArrayList<>(list);
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> reader = executor.submit(() -> {
+                start.await();
+                int passes = 0;
+                while (!done.get() || passes == 0) {
+                    assertEquals(expected, new ArrayList<>(view));
+                    passes++;
+                }
+                return passes;
+            });
+            start.countDown();
+            Random random = new Random(23);
+            for (int step = 0; step < 200_000; step++) {
+                int size = list.size();
+                switch (random.nextInt(4)) {
+                    case 0:
+                        list.addFirst(-step);
+                        break;
+                    case 1:
+                        list.pollLast();
+                        break;
+                    case 2:
+                        if (size > 0) {
+                            list.set(random.nextInt(size), -step);
+                        }
+                        break;
+                    default:
+                        if (size > 0) {
+                            list.remove(random.nextInt(Math.min(size, 32)));
+                        }
+                        break;
+                }
+            }
+            done.set(true);
+            reader.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
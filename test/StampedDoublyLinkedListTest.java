@@ -0,0 +1,186 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка StampedDoublyLinkedList
+ *
+ * Однопоточные операции сравниваются с java.util.LinkedList. При
+ * одновременной записи читатели проверяют, что оптимистичные чтения
+ * и чтения под блокировкой видят только согласованные состояния.
+ */
+class StampedDoublyLinkedListTest {
+    private static final int OPERATIONS = 20_000;
+    private static final int VALUES = 40;
+    private static final int READERS = 3;
+    private static final int READS = 50_000;
+
+    private static DoublyLinkedList<Integer> create(String mode) {
+        DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+        if (mode.equals("indexed")) {
+            list.enableValueIndex();
+            list.enablePositionIndex();
+        }
+        return list;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "indexed"})
+    void randomOperationsMatchLinkedList(String mode) {
+        StampedDoublyLinkedList<Integer> list = new StampedDoublyLinkedList<>(create(mode));
+        LinkedList<Integer> expected = new LinkedList<>();
+        Random random = new Random(mode.hashCode());
+
+        for (int step = 0; step < OPERATIONS; step++) {
+            int value = random.nextInt(VALUES);
+            int size = expected.size();
+            switch (random.nextInt(10)) {
+                case 0:
+                    list.addFirst(value);
+                    expected.addFirst(value);
+                    break;
+                case 1:
+                case 2: {
+                    int index = random.nextInt(size + 1);
+                    list.add(index, value);
+                    expected.add(index, value);
+                    break;
+                }
+                case 3:
+                    if (size > 0) {
+                        assertEquals(expected.removeFirst(), list.removeFirst());
+                    } else {
+                        assertThrows(NoSuchElementException.class, list::removeFirst);
+                    }
+                    break;
+                case 4:
+                    if (size > 0) {
+                        assertEquals(expected.removeLast(), list.removeLast());
+                    }
+                    break;
+                case 5:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.remove(index), list.remove(index));
+                    }
+                    break;
+                case 6:
+                    assertEquals(expected.remove(Integer.valueOf(value)), list.removeByValue(value));
+                    break;
+                case 7:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.set(index, value), list.set(index, value));
+                    }
+                    break;
+                case 8: {
+                    int index = random.nextInt(size + 2) - 1;
+                    if (index >= 0 && index < size) {
+                        assertEquals(expected.get(index), list.get(index));
+                    } else {
+                        assertThrows(IndexOutOfBoundsException.class, () -> list.get(index));
+                    }
+                    break;
+                }
+                default:
+                    assertEquals(expected.indexOf(value), list.indexOf(value));
+                    assertEquals(expected.contains(value), list.contains(value));
+                    if (random.nextInt(500) == 0) {
+                        list.clear();
+                        expected.clear();
+                    }
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+            assertEquals(expected.isEmpty(), list.isEmpty());
+        }
+        assertEquals(expected, list.toList());
+    }
+
+    /**
+     * Писатель держит список в виде 0, 1, ..., n-1, меняя его длину;
+     * любое согласованное чтение обязано видеть такой префикс
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "indexed"})
+    void readersSeeOnlyConsistentStates(String mode) throws Exception {
+        StampedDoublyLinkedList<Integer> list = new StampedDoublyLinkedList<>(create(mode));
+        for (int i = 0; i < 200; i++) {
+            list.addLast(i);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + 1);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                Random random = new Random(9);
+                start.await();
+                while (!done.get()) {
+                    if (random.nextBoolean() || list.size() < 2) {
+                        list.addLast(list.size());
+                    } else {
+                        list.removeLast();
+                    }
+                    if (random.nextInt(1000) == 0) {
+                        int size = list.size();
+                        list.clear();
+                        for (int i = 0; i < size; i++) {
+                            list.addLast(i);
+                        }
+                    }
+                }
+                return null;
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                long seed = r;
+                readers.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < READS; i++) {
+                        int index = random.nextInt(400);
+                        try {
+                            assertEquals(index, list.get(index));
+                        } catch (IndexOutOfBoundsException e) {
+                            // Элемент удален писателем
+                        }
+                        int found = list.indexOf(index);
+                        assertTrue(found == index || found == -1, "indexOf(" + index + ") = " + found);
+                        if (i % 1000 == 0) {
+                            List<Integer> copy = list.toList();
+                            for (int j = 0; j < copy.size(); j++) {
+                                assertEquals(j, copy.get(j));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            try {
+                for (Future<?> reader : readers) {
+                    reader.get();
+                }
+            } finally {
+                done.set(true);
+            }
+            writer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
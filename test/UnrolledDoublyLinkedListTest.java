@@ -0,0 +1,179 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка UnrolledDoublyLinkedList против java.util.LinkedList
+ *
+ * Минимальная емкость (4) заставляет часто делить и сливать блоки.
+ */
+class UnrolledDoublyLinkedListTest {
+    private static final int OPERATIONS = 20_000;
+    private static final int VALUES = 40;
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 5, 16, 64})
+    void randomOperationsMatchLinkedList(int chunkCapacity) {
+        UnrolledDoublyLinkedList<Integer> list = new UnrolledDoublyLinkedList<>(chunkCapacity);
+        LinkedList<Integer> expected = new LinkedList<>();
+        Random random = new Random(chunkCapacity);
+
+        for (int step = 0; step < OPERATIONS; step++) {
+            int value = random.nextInt(VALUES);
+            int size = expected.size();
+            switch (random.nextInt(13)) {
+                case 0:
+                    list.addFirst(value);
+                    expected.addFirst(value);
+                    break;
+                case 1:
+                case 2:
+                    list.addLast(value);
+                    expected.addLast(value);
+                    break;
+                case 3: {
+                    int index = random.nextInt(size + 1);
+                    list.add(index, value);
+                    expected.add(index, value);
+                    break;
+                }
+                case 4:
+                    assertEquals(expected.pollFirst(), list.pollFirst());
+                    break;
+                case 5:
+                    if (size > 0) {
+                        assertEquals(expected.removeLast(), list.removeLast());
+                    } else {
+                        assertThrows(NoSuchElementException.class, list::removeLast);
+                    }
+                    break;
+                case 6:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.remove(index), list.remove(index));
+                    }
+                    break;
+                case 7:
+                    assertEquals(expected.removeFirstOccurrence(value), list.removeByValue(value));
+                    break;
+                case 8:
+                    assertEquals(expected.removeLastOccurrence(value), list.removeLastOccurrence(value));
+                    break;
+                case 9:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        assertEquals(expected.set(index, value), list.set(index, value));
+                        assertEquals(expected.get(index), list.get(index));
+                    }
+                    break;
+                case 10:
+                    walkWithListIterator(list, expected, random);
+                    break;
+                case 11:
+                    assertEquals(expected.indexOf(value), list.indexOf(value));
+                    assertEquals(expected.lastIndexOf(value), list.lastIndexOf(value));
+                    assertEquals(expected.contains(value), list.contains(value));
+                    break;
+                default:
+                    assertEquals(expected.peekFirst(), list.peekFirst());
+                    assertEquals(expected.peekLast(), list.peekLast());
+                    if (random.nextInt(300) == 0) {
+                        list.clear();
+                        expected.clear();
+                    }
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+            if (step % 100 == 0) {
+                assertSameContent(expected, list);
+            }
+        }
+        assertSameContent(expected, list);
+    }
+
+    private static void walkWithListIterator(UnrolledDoublyLinkedList<Integer> list, LinkedList<Integer> expected,
+                                             Random random) {
+        int start = random.nextInt(expected.size() + 1);
+        ListIterator<Integer> actual = list.listIterator(start);
+        ListIterator<Integer> reference = expected.listIterator(start);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(reference.nextIndex(), actual.nextIndex());
+            assertEquals(reference.hasNext(), actual.hasNext());
+            assertEquals(reference.hasPrevious(), actual.hasPrevious());
+            boolean forward = random.nextBoolean();
+            if (forward ? !reference.hasNext() : !reference.hasPrevious()) {
+                continue;
+            }
+            assertEquals(forward ? reference.next() : reference.previous(),
+                    forward ? actual.next() : actual.previous());
+            switch (random.nextInt(4)) {
+                case 0:
+                    reference.remove();
+                    actual.remove();
+                    break;
+                case 1:
+                    reference.set(-i);
+                    actual.set(-i);
+                    break;
+                case 2:
+                    reference.add(-i);
+                    actual.add(-i);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void assertSameContent(List<Integer> expected, UnrolledDoublyLinkedList<Integer> list) {
+        assertEquals(expected, list);
+        List<Integer> backward = new ArrayList<>();
+        for (Iterator<Integer> it = list.descendingIterator(); it.hasNext(); ) {
+            backward.add(it.next());
+        }
+        List<Integer> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, backward);
+        assertEquals(reversed, list.reversed());
+    }
+
+    @Test
+    void iteratorFailsFastAndRemovesInPlace() {
+        UnrolledDoublyLinkedList<Integer> list = new UnrolledDoublyLinkedList<>(4);
+        for (int i = 0; i < 10; i++) {
+            list.addLast(i);
+        }
+        Iterator<Integer> it = list.iterator();
+        it.next();
+        list.addFirst(-1);
+        assertThrows(ConcurrentModificationException.class, it::next);
+
+        for (Iterator<Integer> odd = list.iterator(); odd.hasNext(); ) {
+            if (odd.next() % 2 != 0) {
+                odd.remove();
+            }
+        }
+        assertEquals(Arrays.asList(0, 2, 4, 6, 8), list);
+
+        Iterator<Integer> descending = list.descendingIterator();
+        assertThrows(IllegalStateException.class, descending::remove);
+        assertEquals(8, descending.next());
+        descending.remove();
+        assertThrows(IllegalStateException.class, descending::remove);
+        assertEquals(Arrays.asList(0, 2, 4, 6), list);
+    }
+}